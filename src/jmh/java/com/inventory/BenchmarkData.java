@@ -0,0 +1,61 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catalogs for the benchmarks: made-up item names with realistic overlap,
+ * always the same for a given size, and embedded H2 databases holding them,
+ * so no benchmark needs a MySQL server or the network.
+ */
+final class BenchmarkData {
+
+    private static final String[] SYLLABLES = { "ba", "ko", "ri", "ten", "sul", "mar", "vex", "lo", "dra",
+            "pin", "qu", "zor", "el", "fa", "gri", "hol", "nus", "tra", "wen", "yo" };
+    private static final String[] KINDS = { "bolt", "screw", "washer", "nut", "hinge", "bracket", "pipe",
+            "clamp", "valve", "seal", "anchor", "rivet", "spring", "gasket", "bearing", "fitting" };
+
+    static final String[] QUERIES = { "bolt", "marvex", "gasket", "zortra", "kori" };
+
+    private BenchmarkData() {
+    }
+
+    static List<Item> items(int n) {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            items.add(new Item(i, name(random), random.nextInt(500), random.nextInt(10_000) / 100.0));
+        }
+        return items;
+    }
+
+    static String name(Random random) {
+        String brand = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                + SYLLABLES[random.nextInt(SYLLABLES.length)];
+        return Character.toUpperCase(brand.charAt(0)) + brand.substring(1) + " "
+                + KINDS[random.nextInt(KINDS.length)] + " M" + (2 + random.nextInt(20));
+    }
+
+    /** A fresh in-memory database with the app's schema, open until the connection closes. */
+    static Connection openDatabase(String name) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + name
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE");
+        Migrations.migrate(conn, Database.MIGRATIONS);
+        return conn;
+    }
+
+    /** Fills the inventory table with {@code items(n)} in one batched transaction. */
+    static void fill(Connection conn, int n) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            new H2ItemRepository().insertAll(conn, items(n));
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
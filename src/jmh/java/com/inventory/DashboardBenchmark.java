@@ -0,0 +1,66 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Dashboard totals and low stock list: the full aggregate query a resync
+ * runs, against the incremental update every single edit applies instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DashboardBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int rows;
+
+    private final ItemRepository items = new H2ItemRepository();
+    private Connection conn;
+    private DashboardMetrics metrics;
+    private List<Item> catalog;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        conn = BenchmarkData.openDatabase("dashboard");
+        BenchmarkData.fill(conn, rows);
+        catalog = BenchmarkData.items(rows);
+        metrics = new DashboardMetrics();
+        catalog.forEach(metrics::itemAdded);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public DashboardMetrics.Snapshot snapshot() throws SQLException {
+        return items.snapshot(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, 50);
+    }
+
+    @Benchmark
+    public long itemUpdated() {
+        // Moves one item in and out of low stock, the costly case for the sorted list
+        Item before = catalog.get(next);
+        next = (next + 1) % catalog.size();
+        Item after = new Item(before.getId(), before.getName(), before.getQuantity() < 10 ? 50 : 1,
+                before.getPrice());
+        metrics.itemUpdated(before, after);
+        metrics.itemUpdated(after, before);
+        return metrics.getTotalStock();
+    }
+}
@@ -0,0 +1,66 @@
+package com.inventory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One keystroke in the inventory filter box, as setupFiltering wires it:
+ * the filtered list re-tests every row, either by scanning names or against
+ * the trigram index's id set. Shows where the index starts to pay off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+
+    @Param({ "1000", "20000", "100000", "500000" })
+    public int items;
+
+    @Param({ "bolt", "marvex", "zortra" })
+    public String query;
+
+    private ObservableList<Item> itemList;
+    private IndexFilteredList<Item> filtered;
+    private TrigramIndex index;
+
+    @Setup
+    public void setUp() {
+        List<Item> list = BenchmarkData.items(items);
+        itemList = FXCollections.observableArrayList(list);
+        filtered = new IndexFilteredList<>(itemList);
+        index = new TrigramIndex();
+        for (Item item : list) {
+            index.add(item.getId(), item.getName());
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        filtered.setFilter(row -> TrigramIndex.containsIgnoreCase(itemList.get(row).getName(), query));
+        return filtered.size();
+    }
+
+    @Benchmark
+    public int trigramIndex() {
+        IntHashSet matches = index.search(query);
+        filtered.setFilter(row -> matches.contains(itemList.get(row).getId()));
+        return filtered.size();
+    }
+
+    @Benchmark
+    public int indexLookupOnly() {
+        return index.search(query).size();
+    }
+}
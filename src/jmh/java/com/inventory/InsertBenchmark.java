@@ -0,0 +1,95 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Adding {@code rows} items: one statement and commit each, as the add
+ * form does; one statement each in a single transaction; and one batch,
+ * as the CSV import does. Embedded H2 has no network round trip, so
+ * against MySQL the gap only widens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InsertBenchmark {
+
+    @Param({ "100", "1000" })
+    public int rows;
+
+    private final ItemRepository items = new H2ItemRepository();
+    private Connection conn;
+    private List<Item> batch;
+
+    @Setup
+    public void setUp() throws SQLException {
+        conn = BenchmarkData.openDatabase("insert");
+        batch = BenchmarkData.items(rows);
+    }
+
+    // Every call inserts into an empty table, so later calls in an iteration do not pay for a bigger index.
+    // The calls take milliseconds, so the per-call setup does not skew their timing.
+    @Setup(Level.Invocation)
+    public void emptyTable() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM inventory");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public int single() throws SQLException {
+        int inserted = 0;
+        for (Item item : batch) {
+            items.insert(conn, item.getName(), item.getQuantity(), item.getPrice());
+            inserted++;
+        }
+        return inserted;
+    }
+
+    @Benchmark
+    public int singleInOneTransaction() throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            int inserted = 0;
+            for (Item item : batch) {
+                items.insert(conn, item.getName(), item.getQuantity(), item.getPrice());
+                inserted++;
+            }
+            conn.commit();
+            return inserted;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    public int batched() throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            int inserted = items.insertAll(conn, batch).length;
+            conn.commit();
+            return inserted;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
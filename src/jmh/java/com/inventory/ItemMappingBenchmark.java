@@ -0,0 +1,51 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** What loadData does off the FX thread: read every row and map it to an Item. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemMappingBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int rows;
+
+    private final ItemRepository items = new H2ItemRepository();
+    private Connection conn;
+
+    @Setup
+    public void setUp() throws SQLException {
+        conn = BenchmarkData.openDatabase("mapping");
+        BenchmarkData.fill(conn, rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<Item> findAll() throws SQLException {
+        return items.findAll(conn);
+    }
+
+    @Benchmark
+    public List<Item> firstPage() throws SQLException {
+        // The paged mode's first screen, for comparison with reading everything
+        return items.findPage(conn, 0, 500);
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The inventory list held as an ObservableList of Item objects versus the
+ * column arrays of an ItemStore: a full load, one keystroke in the filter,
+ * and drawing a screen of table cells. Run with {@code -prof gc} to see the
+ * allocation each one costs. The retained heap of the loaded list is
+ * printed once per fork, measured the way a heap dump would see it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemStoreBenchmark {
+
+    // Rows and columns of a full-height inventory table
+    private static final int VISIBLE_ROWS = 40;
+    private static final int COLUMNS = 6;
+
+    @Param({ "100000", "1000000" })
+    public int items;
+
+    @Param({ "objects", "columns" })
+    public String store;
+
+    private List<Item> loaded;
+    private ObservableList<Item> itemList;
+    private IndexFilteredList<Item> filtered;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        itemList = newList();
+        // The list it is filled from is dropped before measuring, as loadData's is
+        itemList.setAll(BenchmarkData.items(items));
+        long retained = usedHeap() - before;
+        loaded = BenchmarkData.items(items);
+        System.out.printf("%n%s, %d rows: %.1f MB retained, %.1f bytes/row%n", store, items, retained / 1e6,
+                (double) retained / items);
+        filtered = new IndexFilteredList<>(itemList);
+    }
+
+    @Benchmark
+    public ObservableList<Item> load() {
+        // Fills through setAll like InventoryView.loadData
+        ObservableList<Item> list = newList();
+        list.setAll(loaded);
+        return list;
+    }
+
+    @Benchmark
+    public int filterKeystroke() {
+        if (itemList instanceof ItemStore columns) {
+            filtered.setFilter(row -> TrigramIndex.containsIgnoreCase(columns.getName(row), "bolt"));
+        } else {
+            filtered.setFilter(row -> TrigramIndex.containsIgnoreCase(itemList.get(row).getName(), "bolt"));
+        }
+        return filtered.size();
+    }
+
+    @Benchmark
+    public void drawScreen(Blackhole blackhole) {
+        // The table reads the row once per cell
+        for (int row = 0; row < VISIBLE_ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                blackhole.consume(itemList.get(row));
+            }
+        }
+    }
+
+    private ObservableList<Item> newList() {
+        return store.equals("columns") ? new ItemStore() : FXCollections.observableArrayList();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
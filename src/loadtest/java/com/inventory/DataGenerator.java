@@ -0,0 +1,144 @@
+package com.inventory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeds the database with made-up items and suppliers at production volume.
+ * Rows are written to a CSV file and loaded by {@link CsvImporter}, so they
+ * go through the same batched insert path as a real import. Names follow a
+ * skewed distribution like a real catalog: a few product kinds and brands
+ * make up most rows, with a long tail of rare ones, so name searches and the
+ * name index see realistic selectivity. The same seed gives the same data.
+ */
+public class DataGenerator {
+
+    private static final String[] SYLLABLES = { "ba", "ko", "ri", "ten", "sul", "mar", "vex", "lo", "dra",
+            "pin", "qu", "zor", "el", "fa", "gri", "hol", "nus", "tra", "wen", "yo" };
+    // Most common first
+    private static final String[] KINDS = { "bolt", "screw", "washer", "nut", "cable tie", "hinge", "bracket",
+            "pipe", "clamp", "valve", "seal", "anchor", "rivet", "spring", "gasket", "bearing", "fitting",
+            "coupling", "flange", "bushing", "grommet", "pulley", "sprocket", "caster" };
+    private static final String[] MATERIALS = { "Steel", "Stainless", "Zinc plated", "Brass", "Nylon",
+            "Galvanised", "Aluminium", "Black oxide" };
+    private static final String[] SUPPLIER_SUFFIXES = { "Industrial Supply", "Fasteners", "Trading", "Hardware",
+            "Engineering", "Components", "Distribution", "& Sons" };
+    private static final String[] FIRST_NAMES = { "Ann", "Ben", "Chloe", "Daniel", "Ei Mon", "Farid", "Grace",
+            "Hiro", "Isabel", "Jun", "Kavya", "Liam", "Mei Ling", "Nur", "Omar", "Priya", "Ravi", "Siti", "Tom",
+            "Wei" };
+    private static final String[] LAST_NAMES = { "Tan", "Lim", "Lee", "Wong", "Smith", "Kumar", "Ng", "Abdullah",
+            "Chen", "Garcia", "Ong", "Singh", "Brown", "Ismail", "Nguyen", "Park" };
+
+    public record Result(long items, long suppliers, long rejected) {
+    }
+
+    private final CsvImporter importer;
+
+    public DataGenerator(CsvImporter importer) {
+        this.importer = importer;
+    }
+
+    public DataGenerator() {
+        this(new CsvImporter());
+    }
+
+    public Result generate(int items, int suppliers, long seed) throws IOException, SQLException {
+        Random random = new Random(seed);
+        long importedSuppliers = 0;
+        long importedItems = 0;
+        long rejected = 0;
+        if (suppliers > 0) {
+            CsvImporter.Result result = load(CsvImporter.Kind.SUPPLIERS, suppliers, random);
+            importedSuppliers = result.imported();
+            rejected += result.rejected();
+        }
+        if (items > 0) {
+            CsvImporter.Result result = load(CsvImporter.Kind.ITEMS, items, random);
+            importedItems = result.imported();
+            rejected += result.rejected();
+        }
+        return new Result(importedItems, importedSuppliers, rejected);
+    }
+
+    /** A term a user might type into the search box: a brand prefix or a kind, sometimes both. */
+    public static String searchTerm(Random random) {
+        String brand = brand(random);
+        return switch (random.nextInt(3)) {
+            case 0 -> brand.substring(0, Math.min(brand.length(), 3 + random.nextInt(3)));
+            case 1 -> pick(KINDS, random);
+            default -> brand + " " + pick(KINDS, random);
+        };
+    }
+
+    public static String itemName(Random random) {
+        String brand = brand(random);
+        StringBuilder name = new StringBuilder().append(Character.toUpperCase(brand.charAt(0)))
+                .append(brand, 1, brand.length()).append(' ');
+        if (random.nextInt(3) > 0) {
+            name.append(pick(MATERIALS, random).toLowerCase(Locale.ROOT)).append(' ');
+        }
+        name.append(pick(KINDS, random));
+        switch (random.nextInt(3)) {
+            case 0 -> name.append(" M").append(2 + random.nextInt(23));
+            case 1 -> name.append(' ').append(5 * (1 + random.nextInt(40))).append("mm");
+            default -> {
+            }
+        }
+        return name.toString();
+    }
+
+    private CsvImporter.Result load(CsvImporter.Kind kind, int rows, Random random)
+            throws IOException, SQLException {
+        Path file = Files.createTempFile("inventory-" + kind.name().toLowerCase(Locale.ROOT), ".csv");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                    CsvWriter csv = new CsvWriter(out)) {
+                csv.writeRecord(List.of(kind.getColumns()));
+                for (int i = 0; i < rows; i++) {
+                    csv.writeRecord(kind == CsvImporter.Kind.ITEMS ? itemRow(random) : supplierRow(random));
+                }
+            }
+            return importer.importFile(kind, file, (bytesRead, totalBytes, imported, rejected) -> {
+            });
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(CsvImporter.rejectPathFor(file));
+        }
+    }
+
+    private static List<String> itemRow(Random random) {
+        // Mostly small counts, now and then a pallet's worth
+        int quantity = random.nextInt(10) == 0 ? random.nextInt(5_000) : random.nextInt(200);
+        double price = Math.round(Math.exp(random.nextGaussian() * 1.2 + 1.5) * 100) / 100.0;
+        return List.of(itemName(random), String.valueOf(quantity), String.valueOf(price));
+    }
+
+    private static List<String> supplierRow(Random random) {
+        String brand = brand(random);
+        String name = Character.toUpperCase(brand.charAt(0)) + brand.substring(1) + " "
+                + pick(SUPPLIER_SUFFIXES, random);
+        String first = pick(FIRST_NAMES, random);
+        String last = pick(LAST_NAMES, random);
+        String email = (first + "." + last).toLowerCase(Locale.ROOT).replace(' ', '.') + "@" + brand + ".example";
+        String phone = String.format("+60 1%d-%03d %04d", random.nextInt(10), random.nextInt(1_000),
+                random.nextInt(10_000));
+        return List.of(name, first + " " + last, email, phone);
+    }
+
+    private static String brand(Random random) {
+        return pick(SYLLABLES, random) + pick(SYLLABLES, random) + pick(SYLLABLES, random);
+    }
+
+    // Zipf-like: the first entries come up far more often than the last
+    private static String pick(String[] values, Random random) {
+        double u = random.nextDouble();
+        return values[(int) (values.length * u * u)];
+    }
+}
@@ -0,0 +1,332 @@
+package com.inventory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Headless load test against the configured database, without starting the UI:
+ * {@code mvn -P loadtest verify -DskipTests -Dloadtest.args="[items=N] [suppliers=M] [clients=K]
+ * [seconds=60] [warmup=10] [mix=read:50,search:30,receive:15,edit:5] [seed=42]"}.
+ * Seeds N items and M suppliers first if asked to, then runs K simulated
+ * clients, each picking operations at random in the given proportions and
+ * calling the same repositories, search, stock ledger and write-behind queue
+ * the views use, through the shared connection pool. Prints throughput and
+ * p50/p99/p99.9 latency per operation; the warm-up is run but not counted.
+ */
+public class LoadTest {
+
+    enum Operation {
+        /** One page of the paged inventory table. */
+        READ,
+        /** A search box query, by name prefix or words. */
+        SEARCH,
+        /** Stock received at the counter, through the ledger. */
+        RECEIVE,
+        /**
+         * A price change saved from the details pane, queued with the write-behind like the view does
+         * and timed until it has been written, so its latency includes the wait for the next flush.
+         */
+        EDIT
+    }
+
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int ID_PAGE_SIZE = 10_000;
+
+    private final ItemRepository items = Database.items();
+    private final ItemSearch itemSearch = new ItemSearch(items);
+    private final StockLedger ledger;
+    private final WriteBehind writeBehind;
+    private final int[] ids;
+    private final Operation[] mix;
+
+    private LoadTest(StockLedger ledger, WriteBehind writeBehind, int[] ids, Operation[] mix) {
+        this.ledger = ledger;
+        this.writeBehind = writeBehind;
+        this.ids = ids;
+        this.mix = mix;
+    }
+
+    // What one client saw
+    private static class Client {
+        final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        long conflicts;
+
+        Client() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, 0L);
+            }
+        }
+
+        void add(Client other) {
+            for (Operation operation : Operation.values()) {
+                latencies.get(operation).add(other.latencies.get(operation));
+                errors.merge(operation, other.errors.get(operation), Long::sum);
+            }
+            conflicts += other.conflicts;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options;
+        Operation[] mix;
+        try {
+            options = parseOptions(args);
+            mix = parseMix(options.getOrDefault("mix", "read:50,search:30,receive:15,edit:5"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadTest [items=N] [suppliers=M] [clients=K] [seconds=S] [warmup=S]"
+                    + " [mix=read:50,search:30,receive:15,edit:5] [seed=N]");
+            System.exit(2);
+            return;
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "8"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "60"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        StockLedger ledger = new StockLedger();
+        WriteBehind writeBehind = new WriteBehind();
+        try {
+            Database.createNewDatabase();
+            int items = Integer.parseInt(options.getOrDefault("items", "0"));
+            int suppliers = Integer.parseInt(options.getOrDefault("suppliers", "0"));
+            if (items > 0 || suppliers > 0) {
+                long start = System.nanoTime();
+                DataGenerator.Result result = new DataGenerator().generate(items, suppliers, seed);
+                System.err.printf("Generated %d items and %d suppliers in %d ms%n", result.items(),
+                        result.suppliers(), (System.nanoTime() - start) / 1_000_000);
+            }
+
+            int[] ids;
+            try (Connection conn = Database.getConnection()) {
+                ids = loadIds(conn);
+            }
+            if (ids.length == 0 || seconds <= 0) {
+                System.err.println(ids.length == 0 ? "No items to run against; seed some with items=N." : "Done.");
+                return;
+            }
+
+            ledger.start();
+            writeBehind.start();
+            System.err.printf("Running %d clients for %d s after %d s warm-up against %d items%n", clients,
+                    seconds, warmup, ids.length);
+            Client total = new LoadTest(ledger, writeBehind, ids, mix).run(clients, warmup, seconds, seed);
+            print(total, seconds);
+        } catch (IOException | SQLException e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writeBehind.stop();
+            ledger.stop();
+            Database.shutdown();
+        }
+    }
+
+    private Client run(int clients, long warmupSeconds, long seconds, long seed) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long until = measureFrom + seconds * 1_000_000_000L;
+        Client[] results = new Client[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    results[index] = runClient(new Random(seed + index), measureFrom, until);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        Client total = new Client();
+        for (Client result : results) {
+            if (result != null) {
+                total.add(result);
+            }
+        }
+        return total;
+    }
+
+    private Client runClient(Random random, long measureFrom, long until) {
+        Client client = new Client();
+        long now;
+        while ((now = System.nanoTime()) < until) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            boolean measured = now >= measureFrom;
+            try {
+                boolean conflict = !execute(operation, random);
+                if (conflict && measured) {
+                    client.conflicts++;
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (measured) {
+                    client.errors.merge(operation, 1L, Long::sum);
+                }
+                continue;
+            }
+            if (measured) {
+                client.latencies.get(operation).record(System.nanoTime() - now);
+            }
+        }
+        return client;
+    }
+
+    // False when an edit lost to a concurrent one
+    private boolean execute(Operation operation, Random random) throws SQLException {
+        int id = pickId(random);
+        switch (operation) {
+            case READ -> {
+                try (Connection conn = Database.getConnection()) {
+                    items.findPage(conn, id - 1, PAGE_SIZE);
+                }
+            }
+            case SEARCH -> {
+                String query = DataGenerator.searchTerm(random);
+                ItemSearch.Mode mode = query.indexOf(' ') < 0 ? ItemSearch.Mode.PREFIX : ItemSearch.Mode.WORDS;
+                try (Connection conn = Database.getConnection()) {
+                    itemSearch.search(conn, query, mode, SEARCH_LIMIT);
+                }
+            }
+            case RECEIVE -> ledger.record(id, 1 + random.nextInt(20), StockLedger.Reason.RECEIVE).join();
+            case EDIT -> {
+                Item item;
+                try (Connection conn = Database.getConnection()) {
+                    item = items.findById(conn, id);
+                }
+                if (item == null) {
+                    return false;
+                }
+                double price = Math.round(item.getPrice() * (0.95 + random.nextDouble() * 0.1) * 100) / 100.0;
+                Item edited = new Item(id, item.getName(), item.getQuantity(), price, item.getVersion(),
+                        item.getSku());
+                return writeBehind.updateItem(edited, 0).written().join() > 0;
+            }
+        }
+        return true;
+    }
+
+    // Four in five operations go to the busiest fifth of the catalog, as at a real counter
+    private int pickId(Random random) {
+        int hot = Math.max(1, ids.length / 5);
+        return ids[random.nextInt(5) > 0 ? random.nextInt(hot) : random.nextInt(ids.length)];
+    }
+
+    // Keyset pages through the repository, as the paged inventory list reads them
+    private static int[] loadIds(Connection conn) throws SQLException {
+        int[] ids = new int[1024];
+        int count = 0;
+        List<Item> page;
+        do {
+            page = Database.items().findPage(conn, count == 0 ? 0 : ids[count - 1], ID_PAGE_SIZE);
+            for (Item item : page) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = item.getId();
+            }
+        } while (page.size() == ID_PAGE_SIZE);
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static void print(Client total, long seconds) {
+        System.out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s%n", "operation", "count", "ops/s", "errors",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long allErrors = 0;
+        LatencyHistogram all = new LatencyHistogram();
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram latencies = total.latencies.get(operation);
+            long errors = total.errors.get(operation);
+            if (latencies.getCount() == 0 && errors == 0) {
+                continue;
+            }
+            printRow(operation.name().toLowerCase(Locale.ROOT), latencies, errors, seconds);
+            all.add(latencies);
+            allErrors += errors;
+        }
+        printRow("all", all, allErrors, seconds);
+        if (total.conflicts > 0) {
+            System.out.printf("%d edits lost to a concurrent edit of the same item%n", total.conflicts);
+        }
+        ConnectionPool.Stats pool = Database.getPoolStats();
+        if (pool != null) {
+            System.out.printf("Connection pool: %d borrows, %.2f ms average wait, %.2f ms longest wait%n",
+                    pool.borrowed(), pool.avgWaitMs(), pool.maxWaitMs());
+        }
+    }
+
+    private static void printRow(String name, LatencyHistogram latencies, long errors, long seconds) {
+        System.out.printf("%-10s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f%n", name, latencies.getCount(),
+                (double) latencies.getCount() / seconds, errors, millis(latencies.percentile(50)),
+                millis(latencies.percentile(99)), millis(latencies.percentile(99.9)), millis(latencies.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            String key = arg.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String value = arg.substring(eq + 1).trim();
+            if (!key.equals("mix")) {
+                try {
+                    if (Long.parseLong(value) < 0) {
+                        throw new IllegalArgumentException("Negative value: " + arg);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a number: " + arg);
+                }
+            }
+            options.put(key, value);
+        }
+        return options;
+    }
+
+    // One slot per unit of weight, so picking a slot at random follows the mix
+    static Operation[] parseMix(String mix) {
+        Operation[] slots = new Operation[0];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            Operation operation;
+            int weight;
+            try {
+                operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+                weight = pair.length == 2 ? Integer.parseInt(pair[1].trim()) : -1;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation or weight in mix: " + part);
+            }
+            if (weight < 0 || weight > 1_000) {
+                throw new IllegalArgumentException("Weight must be 0 to 1000: " + part);
+            }
+            int from = slots.length;
+            slots = Arrays.copyOf(slots, from + weight);
+            Arrays.fill(slots, from, slots.length, operation);
+        }
+        if (slots.length == 0) {
+            throw new IllegalArgumentException("The mix has no operations: " + mix);
+        }
+        return slots;
+    }
+}
@@ -1,67 +1,170 @@
 package com.inventory;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class App extends Application {
 
+    private DashboardMetrics metrics;
+    private DeltaSync sync;
+    private StockLedger ledger;
+    private WriteBehind writeBehind;
+    private ScanView scanView;
+    private DiagnosticsView diagnosticsView;
+
     @Override
     public void start(Stage stage) {
-        // Create database and tables on startup
-        try {
-            Connection conn = Database.getConnection();
-            if (conn == null) {
-                throw new SQLException("Failed to connect to the database.");
+        TabPane tabPane = new TabPane();
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        // Each tab gets its view on first selection; until the database is ready they all wait
+        for (String title : new String[] { "Dashboard", "Inventory", "Suppliers", "Scan", "Diagnostics" }) {
+            Tab tab = new Tab(title);
+            tab.setContent(loadingPlaceholder());
+            tabPane.getTabs().add(tab);
+        }
+
+        Scene scene = new Scene(tabPane, 800, 600);
+        scene.getStylesheets().add(getClass().getResource("App.css").toExternalForm());
+
+        stage.setTitle("Inventory Management System");
+        stage.setScene(scene);
+        stage.show();
+
+        // Create database and tables, or check they are current, with the window already up
+        Task<Void> setup = new Task<>() {
+            @Override
+            protected Void call() throws SQLException {
+                Database.createNewDatabase();
+                return null;
             }
-            Database.createNewDatabase();
-        } catch (SQLException e) {
+        };
+        setup.setOnSucceeded(e -> startServices(tabPane));
+        setup.setOnFailed(e -> {
+            System.out.println("Database Error on startup: " + setup.getException().getMessage());
             showAlert("Database Connection Error",
                     "Could not connect to the database. Please ensure Laragon is running and the database is accessible.");
             Platform.exit();
-            return;
-        }
-
-        TabPane tabPane = new TabPane();
-        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        });
+        DbExecutor.execute(setup);
+    }
 
-        // Dashboard Tab
-        Tab dashboardTab = new Tab("Dashboard");
-        DashboardView dashboardView = new DashboardView();
-        dashboardTab.setContent(dashboardView.getView());
+    private void startServices(TabPane tabPane) {
+        metrics = new DashboardMetrics();
+        metrics.start();
+        sync = new DeltaSync();
+        if (AppConfig.getBoolean("sync.enabled", true)) {
+            // Before the views load, so the first poll covers changes made while they do
+            sync.start();
+        }
+        ledger = new StockLedger();
+        ledger.start();
+        writeBehind = new WriteBehind();
+        writeBehind.start();
+        // Registered with sync before the views, so they read a cache that already has the other stations' changes
+        SupplierCache supplierCache = new SupplierCache(sync);
+        SkuIndex skuIndex = new SkuIndex(sync);
+        skuIndex.load();
+        Diagnostics.startLogging();
 
-        // Inventory Tab
-        Tab inventoryTab = new Tab("Inventory");
-        InventoryView inventoryView = new InventoryView();
-        inventoryTab.setContent(inventoryView.getView());
+        Map<String, Consumer<Tab>> builders = Map.of(
+                "Dashboard", tab -> tab.setContent(new DashboardView(metrics).getView()),
+                "Inventory", tab -> tab.setContent(new InventoryView(metrics, sync, ledger, skuIndex, writeBehind,
+                        supplierCache).getView()),
+                "Suppliers", tab -> tab.setContent(new SuppliersView(sync, writeBehind, supplierCache).getView()),
+                "Scan", tab -> {
+                    scanView = new ScanView(skuIndex, ledger);
+                    tab.setContent(scanView.getView());
+                },
+                "Diagnostics", tab -> {
+                    diagnosticsView = new DiagnosticsView(supplierCache);
+                    tab.setContent(diagnosticsView.getView());
+                });
+        Set<Tab> built = new HashSet<>();
+        Consumer<Tab> show = tab -> {
+            if (built.add(tab)) {
+                builders.get(tab.getText()).accept(tab);
+            }
+            if (diagnosticsView != null) {
+                if (tab.getText().equals("Diagnostics")) {
+                    diagnosticsView.start();
+                } else {
+                    diagnosticsView.stop();
+                }
+            }
+        };
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, tab) -> show.accept(tab));
+        show.accept(tabPane.getSelectionModel().getSelectedItem());
 
-        // Suppliers Tab
-        Tab suppliersTab = new Tab("Suppliers");
-        SuppliersView suppliersView = new SuppliersView();
-        suppliersTab.setContent(suppliersView.getView());
+        if (AppConfig.getBoolean("app.exitAfterStartup", false)) {
+            // Startup timing and the AppCDS training run: open every tab, then quit once their first reads are in
+            tabPane.getTabs().forEach(tab -> tabPane.getSelectionModel().select(tab));
+            tabPane.getSelectionModel().selectFirst();
+            exitWhenIdle();
+        }
+    }
 
-        tabPane.getTabs().addAll(dashboardTab, inventoryTab, suppliersTab);
+    private static VBox loadingPlaceholder() {
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setMaxSize(32, 32);
+        VBox placeholder = new VBox(8, spinner, new Label("Loading..."));
+        placeholder.setAlignment(Pos.CENTER);
+        return placeholder;
+    }
 
-        // Refresh dashboard when it's selected
-        dashboardTab.setOnSelectionChanged(e -> {
-            if (dashboardTab.isSelected()) {
-                dashboardView.loadDashboardData();
+    private static void exitWhenIdle() {
+        Timeline poll = new Timeline();
+        poll.getKeyFrames().add(new KeyFrame(Duration.millis(50), e -> {
+            if (DbExecutor.isIdle()) {
+                poll.stop();
+                Platform.exit();
             }
-        });
-
-        Scene scene = new Scene(tabPane, 800, 600);
-        scene.getStylesheets().add(getClass().getResource("App.css").toExternalForm());
+        }));
+        poll.setCycleCount(Animation.INDEFINITE);
+        poll.play();
+    }
 
-        stage.setTitle("Inventory Management System");
-        stage.setScene(scene);
-        stage.show();
+    @Override
+    public void stop() {
+        if (sync != null) {
+            sync.stop();
+        }
+        if (metrics != null) {
+            metrics.stop();
+        }
+        if (scanView != null) {
+            scanView.stop();
+        }
+        if (writeBehind != null) {
+            // Writes the edits still queued while the pool is open
+            writeBehind.stop();
+        }
+        if (ledger != null) {
+            // Writes the receipts still queued while the pool is open
+            ledger.stop();
+        }
+        DbExecutor.shutdown();
+        Diagnostics.stopLogging();
+        Database.shutdown();
     }
 
     private void showAlert(String title, String message) {
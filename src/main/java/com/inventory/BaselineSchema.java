@@ -0,0 +1,128 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The schema as it stood before migrations were introduced, applied as
+ * migration 1. It is frozen: a schema change is a new migration in
+ * {@link Database#MIGRATIONS}, never an edit here. Every step is
+ * idempotent, as databases created before migrations run it over the
+ * tables they already have, some of them from before delta sync or scan
+ * mode added their columns. Indexes missing from those tables are built
+ * online, so stations still on the old version can keep working.
+ */
+final class BaselineSchema {
+
+    private BaselineSchema() {
+    }
+
+    static void apply(Connection conn) throws SQLException {
+        createInventory(conn);
+        createStockMovements(conn);
+        createSuppliers(conn);
+        createItemSuppliers(conn);
+        createDeletedRows(conn);
+    }
+
+    private static void createInventory(Connection conn) throws SQLException {
+        boolean existed = Schema.hasTable(conn, "inventory");
+        execute(conn, "CREATE TABLE IF NOT EXISTS inventory (\n"
+                + " id INT PRIMARY KEY AUTO_INCREMENT,\n"
+                + " name VARCHAR(255) NOT NULL,\n"
+                + " sku VARCHAR(64) NULL,\n"
+                + " quantity INT NOT NULL,\n"
+                + " price DOUBLE NOT NULL,\n"
+                + " version INT NOT NULL DEFAULT 1,\n"
+                + " updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)\n"
+                + ");");
+        // Tables created before delta sync existed
+        Schema.ensureColumn(conn, "inventory", "version", "INT NOT NULL DEFAULT 1");
+        Schema.ensureColumn(conn, "inventory", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+        // Tables created before scan mode existed
+        Schema.ensureColumn(conn, "inventory", "sku", "VARCHAR(64) NULL");
+
+        // Prefix search by name and word search both run in the database
+        Schema.ensureIndexOnline(conn, "inventory", "idx_inventory_name", "name");
+        // H2's word search works without one
+        Schema.ensureFulltextIndex(conn, "inventory", "ft_inventory_name", "name");
+        if (existed) {
+            // Migration 2 replaces it with idx_inventory_quantity_price, which a new table gets straight away
+            Schema.ensureIndexOnline(conn, "inventory", "idx_inventory_quantity", "quantity");
+        } else {
+            Schema.ensureIndexOnline(conn, "inventory", "idx_inventory_quantity_price", "quantity, price");
+        }
+        // One item per SKU; items without one are NULL, which the index allows any number of
+        Schema.ensureUniqueIndexOnline(conn, "inventory", "ux_inventory_sku", "sku");
+        // Delta sync polls for rows changed since its last high-water mark
+        Schema.ensureIndexOnline(conn, "inventory", "idx_inventory_updated_at", "updated_at");
+    }
+
+    private static void createStockMovements(Connection conn) throws SQLException {
+        // folded_by is null until the compactor adds the movement to inventory.quantity
+        execute(conn, "CREATE TABLE IF NOT EXISTS stock_movements (\n"
+                + " id BIGINT PRIMARY KEY AUTO_INCREMENT,\n"
+                + " item_id INT NOT NULL,\n"
+                + " delta INT NOT NULL,\n"
+                + " reason VARCHAR(16) NOT NULL,\n"
+                + " moved_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),\n"
+                + " folded_by BIGINT NULL\n"
+                + ");");
+        // The compactor claims the oldest unfolded movements in id order
+        Schema.ensureIndexOnline(conn, "stock_movements", "idx_stock_movements_folded", "folded_by, id");
+        Schema.ensureIndexOnline(conn, "stock_movements", "idx_stock_movements_item", "item_id, moved_at");
+        // Delta sync looks for items whose stock moved since its last poll
+        Schema.ensureIndexOnline(conn, "stock_movements", "idx_stock_movements_moved_at", "moved_at");
+    }
+
+    private static void createSuppliers(Connection conn) throws SQLException {
+        execute(conn, "CREATE TABLE IF NOT EXISTS suppliers (\n"
+                + " id INT PRIMARY KEY AUTO_INCREMENT,\n"
+                + " name VARCHAR(255) NOT NULL,\n"
+                + " contact_person VARCHAR(255),\n"
+                + " email VARCHAR(255),\n"
+                + " phone VARCHAR(255),\n"
+                + " version INT NOT NULL DEFAULT 1,\n"
+                + " updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)\n"
+                + ");");
+        Schema.ensureColumn(conn, "suppliers", "version", "INT NOT NULL DEFAULT 1");
+        Schema.ensureColumn(conn, "suppliers", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+        Schema.ensureIndexOnline(conn, "suppliers", "idx_suppliers_updated_at", "updated_at");
+    }
+
+    private static void createItemSuppliers(Connection conn) throws SQLException {
+        // Links go with the item or supplier they belong to
+        execute(conn, "CREATE TABLE IF NOT EXISTS item_suppliers (\n"
+                + " item_id INT NOT NULL,\n"
+                + " supplier_id INT NOT NULL,\n"
+                + " cost DOUBLE NOT NULL,\n"
+                + " lead_time_days INT NOT NULL,\n"
+                + " PRIMARY KEY (item_id, supplier_id),\n"
+                + " CONSTRAINT fk_item_suppliers_item FOREIGN KEY (item_id) REFERENCES inventory (id)"
+                + " ON DELETE CASCADE,\n"
+                + " CONSTRAINT fk_item_suppliers_supplier FOREIGN KEY (supplier_id) REFERENCES suppliers (id)"
+                + " ON DELETE CASCADE\n"
+                + ");");
+        // The primary key serves lookups by item; this one serves a supplier's item list
+        Schema.ensureIndexOnline(conn, "item_suppliers", "idx_item_suppliers_supplier", "supplier_id, item_id");
+    }
+
+    private static void createDeletedRows(Connection conn) throws SQLException {
+        execute(conn, "CREATE TABLE IF NOT EXISTS deleted_rows (\n"
+                + " table_name VARCHAR(64) NOT NULL,\n"
+                + " row_id INT NOT NULL,\n"
+                + " deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),\n"
+                + " PRIMARY KEY (table_name, row_id)\n"
+                + ");");
+        Schema.ensureIndexOnline(conn, "deleted_rows", "idx_deleted_rows_deleted_at", "table_name, deleted_at");
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
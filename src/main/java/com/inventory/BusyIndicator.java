@@ -0,0 +1,29 @@
+package com.inventory;
+
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.control.ProgressIndicator;
+
+// Small spinner that stays visible while any tracked task is still running
+public class BusyIndicator extends ProgressIndicator {
+
+    private int pending;
+
+    public BusyIndicator() {
+        setMaxSize(18, 18);
+        setVisible(false);
+    }
+
+    public <T> Task<T> track(Task<T> task) {
+        pending++;
+        setVisible(true);
+        task.stateProperty().addListener((obs, oldState, newState) -> {
+            if (newState == Worker.State.SUCCEEDED || newState == Worker.State.FAILED
+                    || newState == Worker.State.CANCELLED) {
+                pending--;
+                setVisible(pending > 0);
+            }
+        });
+        return task;
+    }
+}
@@ -0,0 +1,426 @@
+package com.inventory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small JDBC connection pool. Connections handed out by {@link #borrow()}
+ * go back to the pool when closed instead of closing the socket. While
+ * {@link Diagnostics} are enabled, the statements they create report how
+ * long each execute took.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxWaitMs;
+    private final long validationIntervalMs;
+    private final int validationTimeoutSec;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    // Metrics, guarded by lock
+    private long borrowCount;
+    private long createdCount;
+    private long evictedCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public ConnectionPool(String url, String user, String password,
+            int minSize, int maxSize, long idleTimeoutMs, long maxWaitMs,
+            long validationIntervalMs, int validationTimeoutSec) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxWaitMs = maxWaitMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens connections until the pool holds at least minSize of them. */
+    public void warmUp() throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            Connection physical = openPhysical();
+            lock.lock();
+            try {
+                idle.push(new PooledConnection(physical));
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed.");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pop();
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out after " + maxWaitMs
+                                + " ms waiting for a database connection (pool size " + maxSize + ").");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                candidate = new PooledConnection(openPhysical());
+            } else if (!validate(candidate)) {
+                discard(candidate);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            lock.lock();
+            try {
+                borrowCount++;
+                totalWaitNanos += waited;
+                maxWaitNanos = Math.max(maxWaitNanos, waited);
+            } finally {
+                lock.unlock();
+            }
+            return candidate.lease();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            int idleCount = idle.size();
+            double avgWaitMs = borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+            return new Stats(total - idleCount, idleCount, waiting, borrowCount, createdCount,
+                    evictedCount, avgWaitMs, maxWaitNanos / 1_000_000.0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        evictor.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            for (PooledConnection pc : idle) {
+                closeQuietly(pc.physical);
+                total--;
+            }
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            lock.lock();
+            try {
+                createdCount++;
+            } finally {
+                lock.unlock();
+            }
+            return physical;
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsed < validationIntervalMs) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        boolean healthy = true;
+        try {
+            if (pc.physical.isClosed()) {
+                healthy = false;
+            } else if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        if (!healthy) {
+            discard(pc);
+            return;
+        }
+
+        pc.lastUsed = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.push(pc);
+                available.signal();
+                return;
+            }
+            total--;
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(pc.physical);
+    }
+
+    private void discard(PooledConnection pc) {
+        closeQuietly(pc.physical);
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Deque<PooledConnection> evicted = new ArrayDeque<>();
+        lock.lock();
+        try {
+            // Oldest connections sit at the tail because borrow() takes from the head
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > minSize) {
+                PooledConnection pc = it.next();
+                if (pc.lastUsed >= cutoff) {
+                    break;
+                }
+                it.remove();
+                total--;
+                evictedCount++;
+                evicted.add(pc);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : evicted) {
+            closeQuietly(pc.physical);
+        }
+        try {
+            warmUp();
+        } catch (SQLException e) {
+            System.out.println("Error refilling connection pool: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Already broken, nothing left to release
+        }
+    }
+
+    public record Stats(int active, int idle, int waiting, long borrowed, long created,
+            long evicted, double avgWaitMs, double maxWaitMs) {
+    }
+
+    private class PooledConnection {
+        final Connection physical;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Lease(this));
+        }
+    }
+
+    // Hands out one borrow of a physical connection; close() returns it to the pool
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean returned;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pc.physical;
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pc.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement statement && Diagnostics.isEnabled()) {
+                        Class<?> type = method.getReturnType();
+                        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                                new TimedStatement(statement));
+                    }
+                    return result;
+            }
+        }
+    }
+
+    // Times every execute call; everything else goes straight through
+    private static class TimedStatement implements InvocationHandler {
+        private final Statement statement;
+
+        TimedStatement(Statement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!method.getName().startsWith("execute")) {
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = method.invoke(statement, args);
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                Diagnostics.statementExecuted(System.nanoTime() - start, rowsChanged(result));
+            }
+        }
+
+        private static long rowsChanged(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(0, count);
+            }
+            if (result instanceof Long count) {
+                return Math.max(0, count);
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    // Rewritten multi-row inserts report SUCCESS_NO_INFO instead of a count
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Where background writers get their connections: the pool in the app, a plain DriverManager in tests
+@FunctionalInterface
+public interface ConnectionSource {
+    Connection get() throws SQLException;
+}
@@ -0,0 +1,91 @@
+package com.inventory;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.File;
+
+// Picks a CSV file and runs the import in the background with a progress window
+public class CsvImportDialog {
+
+    public static void show(Window owner, CsvImporter.Kind kind, Runnable onImported) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(kind == CsvImporter.Kind.ITEMS ? "Import Items" : "Import Suppliers");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        CsvImporter importer = new CsvImporter();
+        Task<CsvImporter.Result> task = new Task<>() {
+            @Override
+            protected CsvImporter.Result call() throws Exception {
+                return importer.importFile(kind, file.toPath(), (bytesRead, totalBytes, imported, rejected) -> {
+                    updateProgress(bytesRead, totalBytes);
+                    updateMessage(imported + " imported, " + rejected + " rejected");
+                });
+            }
+        };
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(360);
+        progressBar.progressProperty().bind(task.progressProperty());
+        Label statusLabel = new Label("Reading " + file.getName() + "...");
+        task.messageProperty().addListener((obs, oldVal, newVal) -> statusLabel.setText(newVal));
+
+        Button closeButton = new Button("Cancel");
+        VBox root = new VBox(15, new Label(file.getName()), progressBar, statusLabel, closeButton);
+        root.setPadding(new Insets(20));
+        root.getStyleClass().add("root");
+
+        Stage stage = new Stage();
+        stage.initOwner(owner);
+        stage.initModality(Modality.WINDOW_MODAL);
+        stage.setTitle(chooser.getTitle());
+        Scene scene = new Scene(root);
+        scene.getStylesheets().addAll(owner.getScene().getStylesheets());
+        stage.setScene(scene);
+
+        closeButton.setOnAction(e -> {
+            if (task.isRunning()) {
+                task.cancel();
+            } else {
+                stage.close();
+            }
+        });
+        task.setOnSucceeded(e -> {
+            CsvImporter.Result result = task.getValue();
+            String text = result.imported() + " imported, " + result.rejected() + " rejected.";
+            if (result.rejectFile() != null) {
+                text += "\nRejected rows were written to " + result.rejectFile();
+            }
+            statusLabel.setText(text);
+            closeButton.setText("Close");
+            onImported.run();
+        });
+        task.setOnFailed(e -> {
+            statusLabel.setText("Import stopped: " + task.getException().getMessage()
+                    + "\nRows in batches committed before the error were kept.");
+            closeButton.setText("Close");
+            onImported.run();
+        });
+        task.setOnCancelled(e -> {
+            statusLabel.setText("Import cancelled. Rows in batches committed so far were kept.");
+            closeButton.setText("Close");
+            onImported.run();
+        });
+
+        DbExecutor.execute(task);
+        stage.show();
+    }
+}
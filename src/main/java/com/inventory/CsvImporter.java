@@ -0,0 +1,259 @@
+package com.inventory;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk loads items or suppliers from a CSV file. The file is parsed one
+ * record at a time and inserted in JDBC batches, each committed in its own
+ * transaction. Rows that fail validation are copied to a reject file next to
+ * the input together with the reason.
+ */
+public class CsvImporter {
+
+    public enum Kind {
+        // sku is optional and last, so files without it import as before
+        ITEMS("name", "quantity", "price", "sku"),
+        SUPPLIERS("name", "contact_person", "email", "phone");
+
+        private final String[] columns;
+
+        Kind(String... columns) {
+            this.columns = columns;
+        }
+
+        public String[] getColumns() {
+            return columns.clone();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        void update(long bytesRead, long totalBytes, long imported, long rejected);
+    }
+
+    public record Result(long imported, long rejected, Path rejectFile) {
+    }
+
+    private final int batchSize;
+
+    public CsvImporter(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public CsvImporter() {
+        this(AppConfig.getInt("import.batchSize", 1000));
+    }
+
+    public Result importFile(Kind kind, Path file, Progress progress) throws IOException, SQLException {
+        long totalBytes = Files.size(file);
+        Path rejectPath = rejectPathFor(file);
+        Files.deleteIfExists(rejectPath);
+
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+                CsvReader reader = new CsvReader(new InputStreamReader(counter, StandardCharsets.UTF_8));
+                Connection conn = Database.getConnection()) {
+
+            conn.setAutoCommit(false);
+            RejectWriter rejects = new RejectWriter(rejectPath);
+            try {
+                long imported = 0;
+                List<String[]> pending = new ArrayList<>(batchSize);
+                // SKUs taken by existing items or earlier rows, which the unique index would fail a whole batch on
+                Map<String, Integer> skus = kind == Kind.ITEMS ? Database.items().findSkus(conn) : Map.of();
+                int[] mapping = null;
+
+                List<String> record;
+                while ((record = reader.readRecord()) != null) {
+                    if (mapping == null) {
+                        mapping = headerMapping(kind, record);
+                        if (mapping != null) {
+                            // First record was a header
+                            continue;
+                        }
+                        mapping = positionalMapping(kind);
+                    }
+
+                    String[] values = new String[kind.columns.length];
+                    for (int i = 0; i < values.length; i++) {
+                        int column = mapping[i];
+                        values[i] = column >= 0 && column < record.size() ? record.get(column).trim() : "";
+                    }
+
+                    String error = validate(kind, values);
+                    if (error == null && kind == Kind.ITEMS) {
+                        values[3] = SkuIndex.normalize(values[3]);
+                        if (values[3] != null && skus.putIfAbsent(values[3], 0) != null) {
+                            error = "SKU " + values[3] + " already belongs to another item.";
+                        }
+                    }
+                    if (error != null) {
+                        rejects.write(record, "line " + reader.getRecordLine() + ": " + error);
+                        continue;
+                    }
+
+                    pending.add(values);
+                    if (pending.size() == batchSize) {
+                        imported += flush(kind, conn, pending);
+                        pending.clear();
+                        progress.update(counter.getCount(), totalBytes, imported, rejects.getCount());
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Import cancelled after " + imported + " rows.");
+                        }
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    imported += flush(kind, conn, pending);
+                }
+                progress.update(totalBytes, totalBytes, imported, rejects.getCount());
+                return new Result(imported, rejects.getCount(), rejects.getCount() > 0 ? rejectPath : null);
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                rejects.close();
+            }
+        }
+    }
+
+    public static Path rejectPathFor(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return file.resolveSibling(base + ".rejects.csv");
+    }
+
+    private static long flush(Kind kind, Connection conn, List<String[]> rows) throws SQLException {
+        int[] counts;
+        if (kind == Kind.ITEMS) {
+            List<Item> items = new ArrayList<>(rows.size());
+            for (String[] values : rows) {
+                items.add(new Item(0, values[0], Integer.parseInt(values[1]), Double.parseDouble(values[2]), 1,
+                        values[3]));
+            }
+            counts = Database.items().insertAll(conn, items);
+        } else {
+            List<Supplier> suppliers = new ArrayList<>(rows.size());
+            for (String[] values : rows) {
+                suppliers.add(new Supplier(0, values[0], values[1], values[2], values[3]));
+            }
+            counts = Database.suppliers().insertAll(conn, suppliers);
+        }
+        conn.commit();
+        long written = 0;
+        for (int count : counts) {
+            // Rewritten multi-row inserts report SUCCESS_NO_INFO instead of a count
+            written += count == PreparedStatement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return written;
+    }
+
+    private static String validate(Kind kind, String[] values) {
+        if (kind == Kind.ITEMS) {
+            String error = ItemValidator.validateItem(values[0], values[1], values[2]);
+            return error != null ? error : ItemValidator.validateSku(values[3]);
+        }
+        return ItemValidator.validateSupplier(values[0], values[1], values[2], values[3]);
+    }
+
+    // Maps each expected column to its position in the header, or null if the record is not a header
+    private static int[] headerMapping(Kind kind, List<String> record) {
+        List<String> names = new ArrayList<>();
+        for (String field : record) {
+            names.add(field.trim().toLowerCase(Locale.ROOT).replace(' ', '_'));
+        }
+        if (!names.contains("name")) {
+            return null;
+        }
+        int[] mapping = new int[kind.columns.length];
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = names.indexOf(kind.columns[i]);
+        }
+        return mapping;
+    }
+
+    private static int[] positionalMapping(Kind kind) {
+        int[] mapping = new int[kind.columns.length];
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = i;
+        }
+        return mapping;
+    }
+
+    // Opened on the first rejected row so clean imports leave no file behind
+    private static class RejectWriter {
+        private final Path path;
+        private CsvWriter writer;
+        private long count;
+
+        RejectWriter(Path path) {
+            this.path = path;
+        }
+
+        void write(List<String> record, String reason) throws IOException {
+            if (writer == null) {
+                writer = new CsvWriter(new BufferedWriter(
+                        new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8)));
+            }
+            List<String> row = new ArrayList<>(record);
+            row.add(reason);
+            writer.writeRecord(row);
+            count++;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
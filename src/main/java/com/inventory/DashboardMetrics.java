@@ -0,0 +1,322 @@
+package com.inventory;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Dashboard totals kept in memory. A full aggregate query only runs on
+ * {@link #resync()}, at startup and then on a timer; between resyncs every
+ * insert, update and delete adjusts the totals by its own delta. Changes
+ * reported while a query runs are replayed on top of its result. Of the low
+ * stock list only the first pages are held, loaded by keyset as
+ * {@link #showMoreLowStock()} asks for them. All methods are meant to be
+ * called on the FX thread.
+ */
+public class DashboardMetrics {
+
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    public record LowStockItem(int id, String name, int quantity) {
+    }
+
+    private static final Comparator<LowStockItem> LOW_STOCK_ORDER = Comparator
+            .comparingInt(LowStockItem::quantity)
+            .thenComparingInt(LowStockItem::id);
+
+    // An item's state before and after a change; null before for an insert, null after for a delete
+    private record Change(Item before, Item after) {
+    }
+
+    private final int lowStockPageSize = AppConfig.getInt("dashboard.lowStockPageSize", 50);
+    private final Timeline timeline;
+
+    private int totalItems;
+    private long totalStock;
+    private double totalValue;
+    private int lowStockCount;
+    // Every low stock item up to and including lowStockCursor, or every one at all once lowStockComplete
+    private final Map<Integer, LowStockItem> lowStockById = new HashMap<>();
+    private final TreeSet<LowStockItem> lowStock = new TreeSet<>(LOW_STOCK_ORDER);
+    private LowStockItem lowStockCursor;
+    // Until the first resync the totals are those of an empty table
+    private boolean lowStockComplete = true;
+    private int lowStockShown = lowStockPageSize;
+
+    private final List<Runnable> listeners = new ArrayList<>();
+    private Task<Snapshot> resyncTask;
+    private Task<List<LowStockItem>> lowStockTask;
+    // Changes reported since the running resync or page query was sent, or null when none runs. A change that
+    // committed just before the query read its row is counted twice, until the next resync corrects it.
+    private List<Change> buffered;
+
+    public DashboardMetrics(long resyncIntervalMs) {
+        this.timeline = new Timeline(new KeyFrame(Duration.millis(resyncIntervalMs), e -> resync()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public DashboardMetrics() {
+        this(AppConfig.getLong("dashboard.resyncIntervalMs", 300_000));
+    }
+
+    /** Loads the totals now and again every interval, catching changes no delta reported. */
+    public void start() {
+        resync();
+        timeline.play();
+    }
+
+    public void stop() {
+        timeline.stop();
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+            buffered = null;
+        }
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public long getTotalStock() {
+        return totalStock;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    /** The lowest-quantity items first, as many pages of them as have been asked for. */
+    public List<LowStockItem> getLowStock() {
+        List<LowStockItem> items = new ArrayList<>(Math.min(lowStockShown, lowStock.size()));
+        Iterator<LowStockItem> it = lowStock.iterator();
+        while (it.hasNext() && items.size() < lowStockShown) {
+            items.add(it.next());
+        }
+        return items;
+    }
+
+    public boolean hasMoreLowStock() {
+        return lowStockCount > lowStockShown;
+    }
+
+    /**
+     * Shows another page of the low stock list, loading it from the database
+     * after the last item held. Returns the query, or null if every item it
+     * needs is already held or on its way.
+     */
+    public Task<List<LowStockItem>> showMoreLowStock() {
+        lowStockShown += lowStockPageSize;
+        Task<List<LowStockItem>> task = loadLowStock();
+        if (task == null) {
+            fireChanged();
+        }
+        return task;
+    }
+
+    private Task<List<LowStockItem>> loadLowStock() {
+        // A running resync loads the pages asked for so far and then calls back here for the rest
+        if (lowStockComplete || lowStock.size() >= lowStockShown || lowStockTask != null || resyncTask != null) {
+            return null;
+        }
+        LowStockItem after = lowStockCursor;
+        int limit = lowStockShown - lowStock.size();
+        buffered = new ArrayList<>();
+        Task<List<LowStockItem>> task = DbExecutor.submit("dashboard.lowStock",
+                conn -> Database.items().findLowStock(conn, LOW_STOCK_THRESHOLD, after, limit),
+                page -> {
+                    lowStockTask = null;
+                    addLowStockPage(page, limit);
+                    // The page may hold older states of items changed since; the totals never saw the page
+                    for (Change change : buffered) {
+                        updateLowStock(change);
+                    }
+                    buffered = null;
+                    fireChanged();
+                    // More may have been asked for while this page loaded
+                    loadLowStock();
+                },
+                e -> {
+                    lowStockTask = null;
+                    buffered = null;
+                    System.out.println("Database Error on loading low stock items: " + e.getMessage());
+                });
+        lowStockTask = task;
+        return task;
+    }
+
+    /** Listeners run only when a value actually changed. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /** The resync still running, or null. */
+    public Task<Snapshot> getResyncTask() {
+        return resyncTask;
+    }
+
+    public Task<Snapshot> resync() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+        }
+        // A page asked for before the resync would continue from a cursor the snapshot replaces
+        if (lowStockTask != null) {
+            lowStockTask.cancel();
+            lowStockTask = null;
+        }
+        int limit = lowStockShown;
+        // Replaces the changes buffered for a query this one supersedes, which the snapshot covers as well
+        buffered = new ArrayList<>();
+        resyncTask = DbExecutor.submit("dashboard.snapshot",
+                conn -> Database.items().snapshot(conn, LOW_STOCK_THRESHOLD, limit),
+                snapshot -> {
+                    resyncTask = null;
+                    apply(snapshot, limit);
+                },
+                e -> {
+                    resyncTask = null;
+                    buffered = null;
+                    System.out.println("Database Error on loading dashboard data: " + e.getMessage());
+                });
+        return resyncTask;
+    }
+
+    public void itemAdded(Item item) {
+        changed(null, item);
+    }
+
+    public void itemUpdated(Item before, Item after) {
+        changed(before, after);
+    }
+
+    public void itemRemoved(Item item) {
+        changed(item, null);
+    }
+
+    private void changed(Item before, Item after) {
+        if (buffered != null) {
+            buffered.add(new Change(before, after));
+        }
+        if (applyChange(new Change(before, after))) {
+            fireChanged();
+        }
+    }
+
+    private boolean applyChange(Change change) {
+        int itemsDelta = (change.after() != null ? 1 : 0) - (change.before() != null ? 1 : 0);
+        long stockDelta = (long) quantity(change.after()) - quantity(change.before());
+        double valueDelta = value(change.after()) - value(change.before());
+        int countDelta = (isLowStock(change.after()) ? 1 : 0) - (isLowStock(change.before()) ? 1 : 0);
+        totalItems += itemsDelta;
+        totalStock += stockDelta;
+        totalValue += valueDelta;
+        lowStockCount += countDelta;
+        boolean lowStockChanged = updateLowStock(change);
+        return itemsDelta != 0 || stockDelta != 0 || valueDelta != 0 || countDelta != 0 || lowStockChanged;
+    }
+
+    private static int quantity(Item item) {
+        return item != null ? item.getQuantity() : 0;
+    }
+
+    private static double value(Item item) {
+        return item != null ? item.getQuantity() * item.getPrice() : 0;
+    }
+
+    private static boolean isLowStock(Item item) {
+        return item != null && item.getQuantity() < LOW_STOCK_THRESHOLD;
+    }
+
+    private boolean updateLowStock(Change change) {
+        if (change.after() == null) {
+            return updateLowStock(change.before().getId(), change.before().getName(), Integer.MAX_VALUE);
+        }
+        return updateLowStock(change.after().getId(), change.after().getName(), change.after().getQuantity());
+    }
+
+    private boolean updateLowStock(int id, String name, int quantity) {
+        LowStockItem existing = lowStockById.get(id);
+        LowStockItem updated = quantity < LOW_STOCK_THRESHOLD ? new LowStockItem(id, name, quantity) : null;
+        // Past the cursor it belongs to a page not loaded yet, which will read it from the database
+        if (updated != null && !lowStockComplete && LOW_STOCK_ORDER.compare(updated, lowStockCursor) > 0) {
+            updated = null;
+        }
+        if (Objects.equals(existing, updated)) {
+            return false;
+        }
+        if (existing != null) {
+            lowStock.remove(existing);
+            lowStockById.remove(id);
+        }
+        if (updated != null) {
+            lowStock.add(updated);
+            lowStockById.put(id, updated);
+        }
+        return true;
+    }
+
+    private void apply(Snapshot snapshot, int limit) {
+        boolean changed = totalItems != snapshot.totalItems()
+                || totalStock != snapshot.totalStock()
+                || totalValue != snapshot.totalValue()
+                || lowStockCount != snapshot.lowStockCount()
+                || lowStockById.size() != snapshot.lowStock().size();
+        for (LowStockItem item : snapshot.lowStock()) {
+            changed |= !item.equals(lowStockById.get(item.id()));
+        }
+
+        totalItems = snapshot.totalItems();
+        totalStock = snapshot.totalStock();
+        totalValue = snapshot.totalValue();
+        lowStockCount = snapshot.lowStockCount();
+        lowStock.clear();
+        lowStockById.clear();
+        lowStockCursor = null;
+        addLowStockPage(snapshot.lowStock(), limit);
+        for (Change change : buffered) {
+            changed |= applyChange(change);
+        }
+        buffered = null;
+        if (changed) {
+            fireChanged();
+        }
+        loadLowStock();
+    }
+
+    private void addLowStockPage(List<LowStockItem> page, int limit) {
+        for (LowStockItem item : page) {
+            lowStock.add(item);
+            lowStockById.put(item.id(), item);
+        }
+        if (!page.isEmpty()) {
+            lowStockCursor = page.get(page.size() - 1);
+        }
+        lowStockComplete = page.size() < limit;
+    }
+
+    private void fireChanged() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /** Totals, the number of low stock items and the first page of them. */
+    public record Snapshot(int totalItems, long totalStock, double totalValue, int lowStockCount,
+            List<LowStockItem> lowStock) {
+    }
+}
@@ -2,28 +2,39 @@ package com.inventory;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 public class DashboardView {
 
+    private final DashboardMetrics metrics;
+
     private Label totalItemsLabel = new Label("0");
     private Label totalStockLabel = new Label("0");
     private Label totalValueLabel = new Label("$0.00");
     private ListView<String> lowStockListView = new ListView<>();
     private ObservableList<String> lowStockItems = FXCollections.observableArrayList();
+    private Label lowStockTitleLabel = new Label();
+    private Button showMoreButton = new Button("Show more");
+    private Button resyncButton = new Button("Resync");
+    private BusyIndicator busyIndicator = new BusyIndicator();
+
+    public DashboardView(DashboardMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     public VBox getView() {
         VBox root = new VBox(20);
@@ -34,6 +45,10 @@ public class DashboardView {
         Label titleLabel = new Label("Inventory Dashboard");
         titleLabel.setFont(new Font("System Bold", 24));
 
+        HBox titleBox = new HBox(10);
+        titleBox.setAlignment(Pos.CENTER);
+        titleBox.getChildren().addAll(titleLabel, resyncButton, busyIndicator);
+
         GridPane grid = new GridPane();
         grid.setHgap(20);
         grid.setVgap(20);
@@ -44,12 +59,27 @@ public class DashboardView {
 
         VBox lowStockBox = new VBox(10);
         lowStockBox.getStyleClass().add("card");
-        lowStockBox.getChildren().addAll(new Label("Low Stock Items (Less than 10)"), lowStockListView);
+        lowStockBox.getChildren().addAll(lowStockTitleLabel, lowStockListView, showMoreButton);
 
         lowStockListView.setItems(lowStockItems);
-        loadDashboardData();
+        lowStockListView.setPlaceholder(new Label("No low stock items"));
+        showMoreButton.setOnAction(e -> {
+            Task<?> page = metrics.showMoreLowStock();
+            if (page != null) {
+                busyIndicator.track(page);
+            }
+        });
+        resyncButton.setOnAction(e -> loadDashboardData());
+
+        // Redraws only when a save or delete actually moved one of the numbers
+        metrics.addListener(this::render);
+        render();
+        // The totals are loaded at startup; the tab only waits for that query if it is still running
+        if (metrics.getResyncTask() != null) {
+            busyIndicator.track(metrics.getResyncTask());
+        }
 
-        root.getChildren().addAll(titleLabel, grid, lowStockBox);
+        root.getChildren().addAll(titleBox, grid, lowStockBox);
         return root;
     }
 
@@ -62,38 +92,27 @@ public class DashboardView {
         return card;
     }
 
+    // Re-reads the totals from the database ahead of the next scheduled resync
     public void loadDashboardData() {
-        int totalItems = 0;
-        int totalStock = 0;
-        double totalValue = 0.0;
-        lowStockItems.clear();
-
-        String sql = "SELECT name, quantity, price FROM inventory";
-
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                ResultSet rs = pstmt.executeQuery()) {
+        busyIndicator.track(metrics.resync());
+    }
 
-            while (rs.next()) {
-                totalItems++;
-                int quantity = rs.getInt("quantity");
-                double price = rs.getDouble("price");
+    private void render() {
+        totalItemsLabel.setText(String.valueOf(metrics.getTotalItems()));
+        totalStockLabel.setText(String.valueOf(metrics.getTotalStock()));
 
-                totalStock += quantity;
-                totalValue += quantity * price;
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+        totalValueLabel.setText(currencyFormatter.format(metrics.getTotalValue()));
 
-                if (quantity < 10) {
-                    lowStockItems.add(rs.getString("name") + " (Qty: " + quantity + ")");
-                }
-            }
-        } catch (SQLException e) {
-            System.out.println("Database Error on loading dashboard data: " + e.getMessage());
+        lowStockTitleLabel.setText("Low Stock Items (Less than " + DashboardMetrics.LOW_STOCK_THRESHOLD + "): "
+                + metrics.getLowStockCount());
+        List<String> rows = new ArrayList<>();
+        for (DashboardMetrics.LowStockItem item : metrics.getLowStock()) {
+            rows.add(item.name() + " (Qty: " + item.quantity() + ")");
         }
-
-        totalItemsLabel.setText(String.valueOf(totalItems));
-        totalStockLabel.setText(String.valueOf(totalStock));
-
-        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
-        totalValueLabel.setText(currencyFormatter.format(totalValue));
+        if (!rows.equals(lowStockItems)) {
+            lowStockItems.setAll(rows);
+        }
+        showMoreButton.setVisible(metrics.hasMoreLowStock());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package com.inventory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams a table to CSV or JSON Lines straight from a forward-only result
+ * set. Rows are written as they arrive and never collected, so memory use
+ * does not grow with the table.
+ */
+public class DataExporter {
+
+    public enum Source {
+        INVENTORY, SUPPLIERS;
+
+        private PreparedStatement prepare(Connection conn) throws SQLException {
+            return this == INVENTORY ? Database.items().prepareExport(conn) : Database.suppliers().prepareExport(conn);
+        }
+    }
+
+    public enum Format {
+        CSV("csv"), JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    /** Writes every row of {@code source} to {@code out} and returns the row count. */
+    public long export(Connection conn, Source source, Format format, Writer out, LongConsumer progress)
+            throws SQLException, IOException {
+        try (PreparedStatement pstmt = source.prepare(conn)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+                String[] names = new String[columnCount];
+                boolean[] numeric = new boolean[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    names[i] = meta.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+                    numeric[i] = isNumeric(meta.getColumnType(i + 1));
+                }
+
+                CsvWriter csv = format == Format.CSV ? new CsvWriter(out) : null;
+                if (csv != null) {
+                    csv.writeRecord(List.of(names));
+                }
+
+                long rows = 0;
+                List<String> record = new ArrayList<>(columnCount);
+                while (rs.next()) {
+                    if (csv != null) {
+                        record.clear();
+                        for (int i = 0; i < columnCount; i++) {
+                            record.add(rs.getString(i + 1));
+                        }
+                        csv.writeRecord(record);
+                    } else {
+                        writeJsonLine(rs, names, numeric, out);
+                    }
+                    if (++rows % PROGRESS_INTERVAL == 0) {
+                        progress.accept(rows);
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new IOException("Export cancelled after " + rows + " rows.");
+                        }
+                    }
+                }
+                out.flush();
+                progress.accept(rows);
+                return rows;
+            }
+        }
+    }
+
+    private static void writeJsonLine(ResultSet rs, String[] names, boolean[] numeric, Writer out)
+            throws SQLException, IOException {
+        out.write('{');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeJsonString(names[i], out);
+            out.write(':');
+            String value = rs.getString(i + 1);
+            if (value == null) {
+                out.write("null");
+            } else if (numeric[i]) {
+                out.write(value);
+            } else {
+                writeJsonString(value, out);
+            }
+        }
+        out.write("}\n");
+    }
+
+    static void writeJsonString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    private static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
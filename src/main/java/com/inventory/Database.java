@@ -4,60 +4,149 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
 
 public class Database {
 
-    private static final String DB_HOST = "jdbc:mysql://localhost:3306/";
-    private static final String DB_NAME = "inventory_db";
-    private static final String DB_URL = DB_HOST + DB_NAME;
-    private static final String USER = "root";
-    private static final String PASS = "";
+    public enum Backend {
+        MYSQL, H2
+    }
 
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+    private static final Backend BACKEND = Backend.valueOf(
+            AppConfig.get("db.backend", "mysql").trim().toUpperCase(Locale.ROOT));
+    private static final String DB_HOST = AppConfig.get("db.host", "jdbc:mysql://localhost:3306/");
+    private static final String DB_NAME = AppConfig.get("db.name", "inventory_db");
+    private static final String DB_URL = BACKEND == Backend.H2
+            // In-process database file, no server or socket involved. Text compares case-insensitively as in MySQL.
+            ? "jdbc:h2:file:" + AppConfig.get("db.h2.path", "./" + DB_NAME)
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE"
+            // Lets Connector/J send a JDBC batch as multi-row INSERTs instead of one round trip per row
+            : DB_HOST + DB_NAME + "?rewriteBatchedStatements=true";
+    private static final String USER = AppConfig.get("db.user", "root");
+    private static final String PASS = AppConfig.get("db.password", "");
+
+    private static final ItemRepository ITEMS = BACKEND == Backend.H2
+            ? new H2ItemRepository()
+            : new MySqlItemRepository();
+    private static final SupplierRepository SUPPLIERS = new JdbcSupplierRepository();
+    private static final ItemSupplierRepository ITEM_SUPPLIERS = new ItemSupplierRepository();
+
+    // MySQL's ER_BAD_DB_ERROR
+    private static final int UNKNOWN_DATABASE = 1049;
+
+    /**
+     * Every schema change in order. Append new ones with the next version;
+     * never edit one that has shipped, as databases that ran it will not
+     * run it again.
+     */
+    static final List<Migrations.Migration> MIGRATIONS = List.of(
+            new Migrations.Migration(1, "Baseline schema", conn -> {
+                BaselineSchema.apply(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    // Replaced by schema_migrations
+                    stmt.execute("DROP TABLE IF EXISTS schema_version");
+                }
+            }),
+            new Migrations.Migration(2, "Covering indexes for item reads and dashboard totals", conn -> {
+                // Every item query sums the unfolded ledger tail per item; this reads it from the index alone
+                Schema.ensureIndexOnline(conn, "stock_movements", "idx_stock_movements_pending",
+                        "folded_by, item_id, delta");
+                // Dashboard totals scan quantity and price only, and the low stock range scan uses the prefix
+                Schema.ensureIndexOnline(conn, "inventory", "idx_inventory_quantity_price", "quantity, price");
+                Schema.dropIndexOnline(conn, "inventory", "idx_inventory_quantity");
+            }));
+
+    private static volatile ConnectionPool pool;
+
+    public static Backend getBackend() {
+        return BACKEND;
     }
 
-    public static void createNewDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_HOST, USER, PASS);
-                Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
-        } catch (SQLException e) {
-            System.out.println("Error creating database: " + e.getMessage());
-        }
-        createInventoryTable();
-        createSuppliersTable();
+    public static ItemRepository items() {
+        return ITEMS;
     }
 
-    public static void createInventoryTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS inventory (\n"
-                + " id INT PRIMARY KEY AUTO_INCREMENT,\n"
-                + " name VARCHAR(255) NOT NULL,\n"
-                + " quantity INT NOT NULL,\n"
-                + " price DOUBLE NOT NULL\n"
-                + ");";
+    public static SupplierRepository suppliers() {
+        return SUPPLIERS;
+    }
 
-        try (Connection conn = getConnection();
-                Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+    public static ItemSupplierRepository itemSuppliers() {
+        return ITEM_SUPPLIERS;
+    }
+
+    /** Fetch size that makes the driver stream a large result instead of buffering it whole. */
+    public static int streamingFetchSize(Connection conn) throws SQLException {
+        // Connector/J streams row by row only with this exact value; H2 rejects it
+        return Schema.isMySql(conn) ? Integer.MIN_VALUE : 1000;
+    }
+
+    public static Connection getConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
-    public static void createSuppliersTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS suppliers (\n"
-                + " id INT PRIMARY KEY AUTO_INCREMENT,\n"
-                + " name VARCHAR(255) NOT NULL,\n"
-                + " contact_person VARCHAR(255),\n"
-                + " email VARCHAR(255),\n"
-                + " phone VARCHAR(255)\n"
-                + ");";
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (Database.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(DB_URL, USER, PASS,
+                            AppConfig.getInt("db.pool.minSize", 2),
+                            AppConfig.getInt("db.pool.maxSize", 10),
+                            AppConfig.getLong("db.pool.idleTimeoutMs", 300_000),
+                            AppConfig.getLong("db.pool.maxWaitMs", 10_000),
+                            AppConfig.getLong("db.pool.validationIntervalMs", 1_000),
+                            AppConfig.getInt("db.pool.validationTimeoutSec", 2));
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
 
-        try (Connection conn = getConnection();
-                Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    /**
+     * Opens the pool and applies any pending {@link #MIGRATIONS} through one
+     * connection; once they have run, a start only reads the current version.
+     * The database itself is only created, over a connection of its own,
+     * when the server reports it missing.
+     */
+    public static void createNewDatabase() throws SQLException {
+        try {
+            getPool().warmUp();
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            if (BACKEND != Backend.MYSQL || e.getErrorCode() != UNKNOWN_DATABASE) {
+                throw e;
+            }
+            // The schema may not exist yet, so this one goes to the server directly
+            try (Connection conn = DriverManager.getConnection(DB_HOST, USER, PASS);
+                    Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
+            }
+            getPool().warmUp();
+        }
+
+        try (Connection conn = getConnection()) {
+            Migrations.migrate(conn, MIGRATIONS);
+            try {
+                // A station that was offline longer than this reloads fully on start anyway
+                long retentionMs = AppConfig.getLong("sync.tombstoneRetentionHours", 72) * 3_600_000;
+                Tombstones.prune(conn, new Timestamp(System.currentTimeMillis() - retentionMs));
+            } catch (SQLException e) {
+                System.out.println(e.getMessage());
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.inventory;
+
+import javafx.concurrent.Task;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work on virtual threads so the JavaFX Application Thread
+ * never blocks on JDBC. Callbacks are delivered back on the FX thread.
+ */
+public final class DbExecutor {
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    private DbExecutor() {
+    }
+
+    /**
+     * Borrows a pooled connection for the duration of {@code work}. Neither
+     * callback runs if the returned task is cancelled first, so a caller can
+     * drop a stale request simply by cancelling it. Timings, rows and errors
+     * are recorded in {@link Diagnostics} under {@code operation}.
+     */
+    public static <T> Task<T> submit(String operation, SqlWork<T> work, Consumer<T> onSuccess,
+            Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                Diagnostics.Timer timer = Diagnostics.start(operation);
+                try (Connection conn = Database.getConnection()) {
+                    timer.acquired();
+                    T result = work.run(conn);
+                    timer.succeeded(result);
+                    return result;
+                } catch (Exception e) {
+                    if (isCancelled()) {
+                        timer.cancelled();
+                    } else {
+                        timer.failed(e);
+                    }
+                    throw e;
+                }
+            }
+        };
+        task.setOnSucceeded(e -> {
+            long start = System.nanoTime();
+            onSuccess.accept(task.getValue());
+            Diagnostics.recordApply(operation, System.nanoTime() - start);
+        });
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        run(task);
+        return task;
+    }
+
+    /** Runs a task that manages its own connection, e.g. one that reports progress. */
+    public static <T> Task<T> execute(Task<T> task) {
+        run(task);
+        return task;
+    }
+
+    /** True when no submitted work is running; its callbacks are already queued on the FX thread. */
+    public static boolean isIdle() {
+        return inFlight.get() == 0;
+    }
+
+    private static void run(Task<?> task) {
+        inFlight.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    public static void shutdown() {
+        executor.shutdown();
+    }
+}
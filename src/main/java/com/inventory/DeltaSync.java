@@ -0,0 +1,167 @@
+package com.inventory;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the lists of every workstation current without reloading them. On a
+ * timer it asks for rows whose {@code updated_at} is past the previous poll,
+ * plus the tombstones of deleted rows, and hands both to the views. Each poll
+ * reaches back {@code overlapMs} further than the last one so a transaction
+ * that committed late is still seen; views must therefore accept the same
+ * change more than once.
+ */
+public class DeltaSync {
+
+    public record Delta<T>(List<T> changed, List<Integer> deletedIds, boolean overflow) {
+        public boolean isEmpty() {
+            return changed.isEmpty() && deletedIds.isEmpty() && !overflow;
+        }
+    }
+
+    private record Poll(Timestamp serverTime, Delta<Item> items, Delta<Supplier> suppliers) {
+    }
+
+    private final ItemRepository items;
+    private final SupplierRepository suppliers;
+    private final long overlapMs;
+    private final int maxRows;
+    private final Timeline timeline;
+
+    private final List<Consumer<Delta<Item>>> itemListeners = new ArrayList<>();
+    private final List<Consumer<Delta<Supplier>>> supplierListeners = new ArrayList<>();
+    // Tombstones already handed out, so the overlap does not deliver the same delete again
+    private final Map<String, Long> deliveredDeletes = new LinkedHashMap<>();
+
+    private Timestamp mark;
+    private long startedAt;
+    private Task<Poll> pollTask;
+
+    public DeltaSync(ItemRepository items, SupplierRepository suppliers, long intervalMs, long overlapMs,
+            int maxRows) {
+        this.items = items;
+        this.suppliers = suppliers;
+        this.overlapMs = overlapMs;
+        this.maxRows = maxRows;
+        this.timeline = new Timeline(new KeyFrame(Duration.millis(intervalMs), e -> poll()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public DeltaSync() {
+        this(Database.items(), Database.suppliers(),
+                AppConfig.getLong("sync.intervalMs", 2_000),
+                AppConfig.getLong("sync.overlapMs", 5_000),
+                AppConfig.getInt("sync.maxRows", 5_000));
+    }
+
+    /** Called on the FX thread with every non-empty delta; {@code overflow} means "reload everything". */
+    public void onItems(Consumer<Delta<Item>> listener) {
+        itemListeners.add(listener);
+    }
+
+    public void onSuppliers(Consumer<Delta<Supplier>> listener) {
+        supplierListeners.add(listener);
+    }
+
+    /** Start before the views load so the first poll reaches back past their initial query. */
+    public void start() {
+        startedAt = System.currentTimeMillis();
+        timeline.play();
+    }
+
+    public void stop() {
+        timeline.stop();
+        if (pollTask != null) {
+            pollTask.cancel();
+        }
+    }
+
+    private void poll() {
+        if (pollTask != null && pollTask.isRunning()) {
+            return;
+        }
+        Timestamp previous = mark;
+        long sinceStart = System.currentTimeMillis() - startedAt;
+        pollTask = DbExecutor.submit("sync.poll", conn -> {
+            Timestamp now = serverTime(conn);
+            long from = (previous != null ? previous.getTime() : now.getTime() - sinceStart) - overlapMs;
+            Timestamp since = new Timestamp(from);
+            return new Poll(now, readItems(conn, since), readSuppliers(conn, since));
+        }, this::deliver, e -> System.out.println("Database Error on syncing changes: " + e.getMessage()));
+    }
+
+    private Delta<Item> readItems(Connection conn, Timestamp since) throws SQLException {
+        List<Item> changed = items.findChangedSince(conn, since, maxRows + 1);
+        if (changed.size() > maxRows) {
+            return new Delta<>(List.of(), List.of(), true);
+        }
+        return new Delta<>(changed, items.findDeletedSince(conn, since), false);
+    }
+
+    private Delta<Supplier> readSuppliers(Connection conn, Timestamp since) throws SQLException {
+        List<Supplier> changed = suppliers.findChangedSince(conn, since, maxRows + 1);
+        if (changed.size() > maxRows) {
+            return new Delta<>(List.of(), List.of(), true);
+        }
+        return new Delta<>(changed, suppliers.findDeletedSince(conn, since), false);
+    }
+
+    private void deliver(Poll poll) {
+        mark = poll.serverTime();
+        forgetDeliveredDeletes();
+        Delta<Item> itemDelta = dropDeliveredDeletes("inventory", poll.items());
+        Delta<Supplier> supplierDelta = dropDeliveredDeletes("suppliers", poll.suppliers());
+        if (!itemDelta.isEmpty()) {
+            itemListeners.forEach(listener -> listener.accept(itemDelta));
+        }
+        if (!supplierDelta.isEmpty()) {
+            supplierListeners.forEach(listener -> listener.accept(supplierDelta));
+        }
+    }
+
+    private <T> Delta<T> dropDeliveredDeletes(String table, Delta<T> delta) {
+        if (delta.deletedIds().isEmpty()) {
+            return delta;
+        }
+        long now = System.currentTimeMillis();
+        List<Integer> fresh = new ArrayList<>();
+        for (int id : delta.deletedIds()) {
+            if (deliveredDeletes.putIfAbsent(table + ":" + id, now) == null) {
+                fresh.add(id);
+            }
+        }
+        return new Delta<>(delta.changed(), fresh, delta.overflow());
+    }
+
+    private void forgetDeliveredDeletes() {
+        long cutoff = System.currentTimeMillis() - 2 * overlapMs;
+        Iterator<Long> it = deliveredDeletes.values().iterator();
+        // Insertion order is delivery order, so stop at the first one still inside the window
+        while (it.hasNext() && it.next() < cutoff) {
+            it.remove();
+        }
+    }
+
+    private static Timestamp serverTime(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT CURRENT_TIMESTAMP(3)");
+                ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+}
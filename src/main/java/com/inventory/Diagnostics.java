@@ -0,0 +1,307 @@
+package com.inventory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency, row and error counts for every named database operation, shown
+ * on the Diagnostics tab and optionally appended to {@code diagnostics.logFile}
+ * every {@code diagnostics.logIntervalMs}. Each run of an operation is split
+ * into phases: waiting for a pooled connection, executing statements,
+ * reading and mapping the rows (the rest of the work), and applying the
+ * result on the FX thread. Statement time is measured by the connection
+ * pool, which wraps the statements it hands out while diagnostics are
+ * enabled. Recording costs a couple of clock reads and an uncontended lock.
+ */
+public final class Diagnostics {
+
+    public enum Phase {
+        TOTAL, ACQUIRE, QUERY, MAPPING, APPLY
+    }
+
+    /** Milliseconds over the runs of one phase. */
+    public record Latency(long count, double meanMs, double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    public record Summary(String operation, long count, long errors, long rows, Map<Phase, Latency> latencies) {
+
+        public Latency latency(Phase phase) {
+            return latencies.get(phase);
+        }
+    }
+
+    public record Failure(Instant at, String operation, String message) {
+    }
+
+    private static final boolean ENABLED = AppConfig.getBoolean("diagnostics.enabled", true);
+    private static final int MAX_FAILURES = 50;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Map<String, Stats> operations = new ConcurrentHashMap<>();
+    private static final Deque<Failure> failures = new ArrayDeque<>();
+    // Statement time and rows of the timer running on this thread
+    private static final ThreadLocal<long[]> statements = new ThreadLocal<>();
+    private static ScheduledExecutorService logger;
+
+    private Diagnostics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /** Starts timing one run of {@code operation} on the calling thread. */
+    public static Timer start(String operation) {
+        return ENABLED ? new Timer(operations.computeIfAbsent(operation, Stats::new)) : Timer.DISABLED;
+    }
+
+    /** Records how long the FX thread spent applying a result of {@code operation}. */
+    public static void recordApply(String operation, long nanos) {
+        if (ENABLED) {
+            operations.computeIfAbsent(operation, Stats::new).record(Phase.APPLY, nanos);
+        }
+    }
+
+    // Called by the pool's statement wrapper after every execute
+    static void statementExecuted(long nanos, long rows) {
+        long[] current = statements.get();
+        if (current != null) {
+            current[0] += nanos;
+            current[1] += rows;
+        }
+    }
+
+    public static List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<>();
+        for (Stats stats : operations.values()) {
+            summaries.add(stats.summary());
+        }
+        summaries.sort(Comparator.comparing(Summary::operation));
+        return summaries;
+    }
+
+    /** The most recent failures, newest first. */
+    public static List<Failure> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    public static void reset() {
+        operations.values().forEach(Stats::reset);
+        synchronized (failures) {
+            failures.clear();
+        }
+    }
+
+    /** Starts appending a report to {@code diagnostics.logFile}, if one is set. */
+    public static synchronized void startLogging() {
+        String file = AppConfig.get("diagnostics.logFile", "");
+        if (!ENABLED || file.isEmpty() || logger != null) {
+            return;
+        }
+        Path path = Path.of(file);
+        long interval = Math.max(1_000, AppConfig.getLong("diagnostics.logIntervalMs", 60_000));
+        logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "diagnostics-log");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.scheduleWithFixedDelay(() -> writeLog(path), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the periodic log, writing one last report. */
+    public static synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+            writeLog(Path.of(AppConfig.get("diagnostics.logFile", "")));
+        }
+    }
+
+    /** Every operation as a plain text table, followed by the recent failures. */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %8s %6s %10s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "errors",
+                "rows", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "acq p99", "apply p99"));
+        for (Summary summary : getSummaries()) {
+            Latency total = summary.latency(Phase.TOTAL);
+            Latency acquire = summary.latency(Phase.ACQUIRE);
+            Latency apply = summary.latency(Phase.APPLY);
+            out.append(String.format("%-28s %8d %6d %10d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    summary.operation(), summary.count(), summary.errors(), summary.rows(), total.p50Ms(),
+                    total.p99Ms(), total.p999Ms(), total.maxMs(), acquire.p99Ms(), apply.p99Ms()));
+        }
+        for (Failure failure : getFailures()) {
+            out.append(format(failure)).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    public static String format(Failure failure) {
+        return TIME.format(LocalDateTime.ofInstant(failure.at(), ZoneId.systemDefault())) + "  "
+                + failure.operation() + ": " + failure.message();
+    }
+
+    private static void writeLog(Path path) {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            out.write("== " + TIME.format(LocalDateTime.now()) + System.lineSeparator());
+            out.write(report());
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
+            System.out.println("Error writing diagnostics to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void addFailure(String operation, Throwable e) {
+        synchronized (failures) {
+            if (failures.size() == MAX_FAILURES) {
+                failures.removeLast();
+            }
+            failures.addFirst(new Failure(Instant.now(), operation, String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * One run of an operation. Call {@link #acquired} once the connection is
+     * borrowed, then exactly one of {@link #succeeded}, {@link #failed} or
+     * {@link #cancelled}, on the thread that started it.
+     */
+    public static final class Timer {
+
+        static final Timer DISABLED = new Timer(null);
+
+        private final Stats stats;
+        private final long started = System.nanoTime();
+        private final long[] counters = new long[2];
+        // Restored at the end, so a timer may run inside another one's work
+        private final long[] enclosing;
+        private long acquiredAt;
+
+        private Timer(Stats stats) {
+            this.stats = stats;
+            this.acquiredAt = started;
+            if (stats != null) {
+                enclosing = statements.get();
+                statements.set(counters);
+            } else {
+                enclosing = null;
+            }
+        }
+
+        public void acquired() {
+            if (stats != null) {
+                acquiredAt = System.nanoTime();
+                stats.record(Phase.ACQUIRE, acquiredAt - started);
+            }
+        }
+
+        /** Rows are the statements' update counts plus the size of {@code result} if it is a collection. */
+        public void succeeded(Object result) {
+            if (stats == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            long rows = counters[1] + (result instanceof Collection<?> collection ? collection.size() : 0);
+            stats.succeeded(now - started, counters[0], Math.max(0, now - acquiredAt - counters[0]), rows);
+            end();
+        }
+
+        public void failed(Throwable e) {
+            if (stats == null) {
+                return;
+            }
+            stats.failed(System.nanoTime() - started);
+            addFailure(stats.name, e);
+            end();
+        }
+
+        /** Ends a run that was cancelled, without counting it. */
+        public void cancelled() {
+            if (stats != null) {
+                end();
+            }
+        }
+
+        private void end() {
+            if (enclosing != null) {
+                enclosing[0] += counters[0];
+                enclosing[1] += counters[1];
+                statements.set(enclosing);
+            } else {
+                statements.remove();
+            }
+        }
+    }
+
+    private static final class Stats {
+        private final String name;
+        private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+        private long errors;
+        private long rows;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(Phase phase, long nanos) {
+            histograms.computeIfAbsent(phase, p -> new LatencyHistogram()).record(nanos);
+        }
+
+        synchronized void succeeded(long total, long query, long mapping, long rowCount) {
+            record(Phase.TOTAL, total);
+            record(Phase.QUERY, query);
+            record(Phase.MAPPING, mapping);
+            rows += rowCount;
+        }
+
+        synchronized void failed(long total) {
+            record(Phase.TOTAL, total);
+            errors++;
+        }
+
+        synchronized void reset() {
+            histograms.clear();
+            errors = 0;
+            rows = 0;
+        }
+
+        synchronized Summary summary() {
+            Map<Phase, Latency> latencies = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = histograms.get(phase);
+                latencies.put(phase, histogram == null ? new Latency(0, 0, 0, 0, 0, 0) : new Latency(
+                        histogram.getCount(), millis(histogram.getMean()), millis(histogram.percentile(50)),
+                        millis(histogram.percentile(99)), millis(histogram.percentile(99.9)),
+                        millis(histogram.getMax())));
+            }
+            LatencyHistogram total = histograms.get(Phase.TOTAL);
+            return new Summary(name, total == null ? 0 : total.getCount(), errors, rows, latencies);
+        }
+
+        private static double millis(double nanos) {
+            return nanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.inventory;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.function.Function;
+
+/**
+ * Latency, rows and errors of every database operation since start or the
+ * last reset, from {@link Diagnostics}, with the connection pool and
+ * supplier cache counters and the most recent failures. Refreshes every
+ * couple of seconds while the tab is showing.
+ */
+public class DiagnosticsView {
+
+    private final SupplierCache supplierCache;
+    private final TableView<Diagnostics.Summary> tableView = new TableView<>();
+    private final ListView<String> failureList = new ListView<>();
+    private final Label poolLabel = new Label();
+    private final Label cacheLabel = new Label();
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(2), e -> refresh()));
+
+    public DiagnosticsView(SupplierCache supplierCache) {
+        this.supplierCache = supplierCache;
+    }
+
+    public VBox getView() {
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(10));
+
+        tableView.getColumns().add(column("Operation", 180, Diagnostics.Summary::operation));
+        tableView.getColumns().add(column("Runs", 70, Diagnostics.Summary::count));
+        tableView.getColumns().add(column("Errors", 60, Diagnostics.Summary::errors));
+        tableView.getColumns().add(column("Rows", 80, Diagnostics.Summary::rows));
+        tableView.getColumns().add(latency("p50 ms", Diagnostics.Phase.TOTAL, Diagnostics.Latency::p50Ms));
+        tableView.getColumns().add(latency("p99 ms", Diagnostics.Phase.TOTAL, Diagnostics.Latency::p99Ms));
+        tableView.getColumns().add(latency("p99.9 ms", Diagnostics.Phase.TOTAL, Diagnostics.Latency::p999Ms));
+        tableView.getColumns().add(latency("Max ms", Diagnostics.Phase.TOTAL, Diagnostics.Latency::maxMs));
+        // Where the p99 goes: waiting for a connection, in the database, reading rows, on the FX thread
+        tableView.getColumns().add(latency("Acquire p99", Diagnostics.Phase.ACQUIRE, Diagnostics.Latency::p99Ms));
+        tableView.getColumns().add(latency("Query p99", Diagnostics.Phase.QUERY, Diagnostics.Latency::p99Ms));
+        tableView.getColumns().add(latency("Mapping p99", Diagnostics.Phase.MAPPING, Diagnostics.Latency::p99Ms));
+        tableView.getColumns().add(latency("Apply p99", Diagnostics.Phase.APPLY, Diagnostics.Latency::p99Ms));
+        tableView.setPlaceholder(new Label(Diagnostics.isEnabled() ? "No database operations yet"
+                : "Diagnostics are turned off (diagnostics.enabled=false)"));
+        VBox.setVgrow(tableView, Priority.ALWAYS);
+
+        failureList.setPrefHeight(120);
+        failureList.setPlaceholder(new Label("No failures"));
+
+        Button refreshButton = new Button("Refresh");
+        refreshButton.setOnAction(e -> refresh());
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            Diagnostics.reset();
+            refresh();
+        });
+        HBox controls = new HBox(10);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.getChildren().addAll(refreshButton, resetButton, poolLabel);
+
+        root.getChildren().addAll(controls, cacheLabel, tableView, new Label("Recent failures"), failureList);
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        refresh();
+        return root;
+    }
+
+    /** Refreshes now and then every couple of seconds, until {@link #stop}. */
+    public void start() {
+        refresh();
+        refresher.play();
+    }
+
+    public void stop() {
+        refresher.stop();
+    }
+
+    private void refresh() {
+        tableView.getItems().setAll(Diagnostics.getSummaries());
+        failureList.getItems().setAll(Diagnostics.getFailures().stream().map(Diagnostics::format).toList());
+
+        ConnectionPool.Stats pool = Database.getPoolStats();
+        poolLabel.setText(pool == null ? "Connection pool not open" : String.format(
+                "Connections: %d in use, %d idle, %d waiting; %d borrows, wait avg %.2f ms, max %.2f ms",
+                pool.active(), pool.idle(), pool.waiting(), pool.borrowed(), pool.avgWaitMs(), pool.maxWaitMs()));
+        SupplierCache.Stats cache = supplierCache.getStats();
+        cacheLabel.setText(String.format("Supplier cache: %d held, %.1f%% hits (%d hits, %d misses),"
+                + " %d evicted, %d expired", cache.size(), cache.hitRate() * 100, cache.hits(), cache.misses(),
+                cache.evictions(), cache.expirations()));
+    }
+
+    private static <T> TableColumn<Diagnostics.Summary, T> column(String title, double width,
+            Function<Diagnostics.Summary, T> getter) {
+        TableColumn<Diagnostics.Summary, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(getter.apply(cell.getValue())));
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    private static TableColumn<Diagnostics.Summary, String> latency(String title, Diagnostics.Phase phase,
+            Function<Diagnostics.Latency, Double> getter) {
+        return column(title, 80, summary -> {
+            Diagnostics.Latency latency = summary.latency(phase);
+            return latency.count() == 0 ? "" : String.format("%.2f", getter.apply(latency));
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.inventory;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.Alert;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+
+// Asks for a target file and streams the table to it in the background
+public class ExportDialog {
+
+    public static void show(Window owner, DataExporter.Source source, BusyIndicator busyIndicator) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(source == DataExporter.Source.INVENTORY ? "Export Items" : "Export Suppliers");
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV", "*.csv");
+        FileChooser.ExtensionFilter jsonFilter = new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl");
+        chooser.getExtensionFilters().addAll(csvFilter, jsonFilter);
+        chooser.setInitialFileName(source.name().toLowerCase() + ".csv");
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        DataExporter.Format format = chooser.getSelectedExtensionFilter() == jsonFilter
+                || file.getName().endsWith(".jsonl")
+                        ? DataExporter.Format.JSONL
+                        : DataExporter.Format.CSV;
+
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+                        Connection conn = Database.getConnection()) {
+                    return new DataExporter().export(conn, source, format, out,
+                            rows -> updateMessage(rows + " rows exported"));
+                }
+            }
+        };
+        task.setOnSucceeded(e -> showResult(Alert.AlertType.INFORMATION,
+                task.getValue() + " rows written to " + file));
+        task.setOnFailed(e -> showResult(Alert.AlertType.ERROR,
+                "Export failed: " + task.getException().getMessage()));
+
+        busyIndicator.track(DbExecutor.execute(task));
+    }
+
+    private static void showResult(Alert.AlertType type, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle("Export");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
+    }
+}
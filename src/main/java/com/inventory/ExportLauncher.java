@@ -0,0 +1,53 @@
+package com.inventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Command-line export without starting the UI:
+ * {@code java -cp InventoryApp.jar com.inventory.ExportLauncher inventory|suppliers csv|jsonl [file]}.
+ * Writes to standard output when no file is given.
+ */
+public class ExportLauncher {
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: ExportLauncher <inventory|suppliers> <csv|jsonl> [output-file]");
+            System.exit(2);
+        }
+
+        DataExporter.Source source;
+        DataExporter.Format format;
+        try {
+            source = DataExporter.Source.valueOf(args[0].toUpperCase(Locale.ROOT));
+            format = DataExporter.Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown table or format: " + args[0] + " " + args[1]);
+            System.exit(2);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (Writer out = args.length == 3
+                ? Files.newBufferedWriter(Path.of(args[2]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+                Connection conn = Database.getConnection()) {
+            long rows = new DataExporter().export(conn, source, format, out, count -> {
+            });
+            System.err.printf("Exported %d rows in %d ms%n", rows, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | SQLException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            Database.shutdown();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Embedded backend. H2 runs in MySQL compatibility mode, so everything but
+ * word search and its index is inherited unchanged.
+ */
+public class H2ItemRepository extends MySqlItemRepository {
+
+    // No FULLTEXT here: every term has to start a word somewhere in the name, like "+term*" in MySQL
+    @Override
+    protected PreparedStatement prepareWordSearch(Connection conn, String query, int limit) throws SQLException {
+        List<String> terms = ItemSearch.searchTerms(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder(SELECT_ITEM).append(" WHERE ");
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append("(LOWER(i.name) LIKE ? OR LOWER(i.name) LIKE ? OR LOWER(i.name) LIKE ?)");
+        }
+        sql.append(" LIMIT ?");
+
+        PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+        int index = 1;
+        for (String term : terms) {
+            String escaped = ItemSearch.escapeLike(term.toLowerCase(Locale.ROOT));
+            pstmt.setString(index++, escaped + "%");
+            pstmt.setString(index++, "% " + escaped + "%");
+            // A hyphen starts a word too, as it does for the FULLTEXT parser
+            pstmt.setString(index++, "%-" + escaped + "%");
+        }
+        pstmt.setInt(index, limit);
+        return pstmt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Set-based statements over a list of ids, as WHERE id IN (?,?,...). Long lists are cut into chunks so
+// no statement outgrows the server's packet and placeholder limits; all chunks share one transaction.
+final class InList {
+
+    /** Most ids bound into one statement. */
+    static final int CHUNK_SIZE = 1_000;
+
+    @FunctionalInterface
+    interface ChunkWork {
+        /** Runs the statements for one chunk of ids and returns the rows they changed. */
+        int apply(List<Integer> chunk) throws SQLException;
+    }
+
+    private InList() {
+    }
+
+    /** The ids cut into runs of at most {@link #CHUNK_SIZE}. */
+    static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>((ids.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /** "(?,?,?)" for three ids. */
+    static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 2 + 1).append('(');
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(')').toString();
+    }
+
+    /** Binds the ids from parameter {@code index} on and returns the index after the last one. */
+    static int bind(PreparedStatement pstmt, int index, List<Integer> ids) throws SQLException {
+        for (int id : ids) {
+            pstmt.setInt(index++, id);
+        }
+        return index;
+    }
+
+    /**
+     * Runs {@code work} for each chunk of {@code ids} in one transaction, or in
+     * the caller's if there is one, and returns the total rows changed.
+     */
+    static int inChunks(Connection conn, List<Integer> ids, ChunkWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int rows = 0;
+            for (List<Integer> chunk : chunks(ids)) {
+                rows += work.apply(chunk);
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+            return rows;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
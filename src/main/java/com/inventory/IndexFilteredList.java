@@ -0,0 +1,186 @@
+package com.inventory;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Filtered view of a list, like a FilteredList, except that the filter
+ * tests a row by its index in the source. Over an {@link ItemStore} a
+ * filter can then read just the column it needs, where a FilteredList
+ * would build an Item for every row on every keystroke. The source indexes
+ * of the rows shown are kept in ascending order.
+ */
+public class IndexFilteredList<E> extends TransformationList<E, E> {
+
+    // Null shows every row
+    private IntPredicate filter;
+    private int[] rows = new int[16];
+    private int size;
+
+    public IndexFilteredList(ObservableList<E> source) {
+        super(source);
+        setFilter(null);
+    }
+
+    /** Shows the rows whose source index passes {@code filter}, or every row for null. */
+    public void setFilter(IntPredicate filter) {
+        this.filter = filter;
+        int[] oldRows = Arrays.copyOf(rows, size);
+        ObservableList<? extends E> source = getSource();
+        rows = new int[Math.max(16, source.size())];
+        size = 0;
+        for (int i = 0; i < source.size(); i++) {
+            if (passes(i)) {
+                rows[size++] = i;
+            }
+        }
+        // The source is unchanged, so the old rows are read from it only if a listener asks for them
+        List<E> removed = new AbstractList<>() {
+            @Override
+            public E get(int index) {
+                return getSource().get(oldRows[index]);
+            }
+
+            @Override
+            public int size() {
+                return oldRows.length;
+            }
+        };
+        beginChange();
+        nextReplace(0, size, removed);
+        endChange();
+    }
+
+    @Override
+    public E get(int index) {
+        return getSource().get(getSourceIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getSourceIndex(int index) {
+        Objects.checkIndex(index, size);
+        return rows[index];
+    }
+
+    @Override
+    public int getViewIndex(int index) {
+        int position = Arrays.binarySearch(rows, 0, size, index);
+        return position >= 0 ? position : -1;
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends E> c) {
+        beginChange();
+        while (c.next()) {
+            if (c.wasPermutated()) {
+                permute(c);
+            } else if (c.wasUpdated()) {
+                update(c);
+            } else {
+                addRemove(c);
+            }
+        }
+        endChange();
+    }
+
+    private boolean passes(int sourceIndex) {
+        return filter == null || filter.test(sourceIndex);
+    }
+
+    // Position of the first shown row at or after this source index
+    private int lowerBound(int sourceIndex) {
+        int position = Arrays.binarySearch(rows, 0, size, sourceIndex);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void permute(ListChangeListener.Change<? extends E> c) {
+        int from = lowerBound(c.getFrom());
+        int to = lowerBound(c.getTo());
+        // New source index in the high half, old view position in the low half, so one sort orders both
+        long[] moves = new long[to - from];
+        for (int i = from; i < to; i++) {
+            moves[i - from] = (long) c.getPermutation(rows[i]) << 32 | (i - from);
+        }
+        Arrays.sort(moves);
+        int[] permutation = new int[to - from];
+        for (int i = 0; i < moves.length; i++) {
+            permutation[(int) moves[i]] = from + i;
+            rows[from + i] = (int) (moves[i] >>> 32);
+        }
+        nextPermutation(from, to, permutation);
+    }
+
+    private void addRemove(ListChangeListener.Change<? extends E> c) {
+        int from = c.getFrom();
+        int removedSize = c.getRemovedSize();
+        int start = lowerBound(from);
+        int end = lowerBound(from + removedSize);
+        List<E> removed = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            removed.add(c.getRemoved().get(rows[i] - from));
+        }
+        int[] added = new int[c.getAddedSize()];
+        int addedCount = 0;
+        for (int i = from; i < c.getTo(); i++) {
+            if (passes(i)) {
+                added[addedCount++] = i;
+            }
+        }
+
+        int shift = c.getAddedSize() - removedSize;
+        int tail = size - end;
+        int[] target = size - (end - start) + addedCount > rows.length
+                ? Arrays.copyOf(rows, Math.max(rows.length * 2, size + addedCount))
+                : rows;
+        System.arraycopy(rows, end, target, start + addedCount, tail);
+        System.arraycopy(added, 0, target, start, addedCount);
+        rows = target;
+        size = start + addedCount + tail;
+        for (int i = start + addedCount; i < size; i++) {
+            rows[i] += shift;
+        }
+
+        if (!removed.isEmpty() && addedCount > 0) {
+            nextReplace(start, start + addedCount, removed);
+        } else if (!removed.isEmpty()) {
+            nextRemove(start, removed);
+        } else if (addedCount > 0) {
+            nextAdd(start, start + addedCount);
+        }
+    }
+
+    private void update(ListChangeListener.Change<? extends E> c) {
+        for (int i = c.getFrom(); i < c.getTo(); i++) {
+            int position = lowerBound(i);
+            boolean shown = position < size && rows[position] == i;
+            if (shown && passes(i)) {
+                nextUpdate(position);
+            } else if (shown) {
+                System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+                size--;
+                nextRemove(position, getSource().get(i));
+            } else if (passes(i)) {
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                System.arraycopy(rows, position, rows, position + 1, size - position);
+                rows[position] = i;
+                size++;
+                nextAdd(position, position + 1);
+            }
+        }
+    }
+}
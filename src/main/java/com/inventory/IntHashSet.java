@@ -0,0 +1,145 @@
+package com.inventory;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing set of primitive ints, used where a HashSet<Integer> would
+ * box every id. Linear probing with backward-shift deletion, so no tombstones.
+ */
+public class IntHashSet {
+
+    private static final int FREE = 0;
+
+    private int[] table;
+    private int mask;
+    private int size;
+    // FREE marks empty slots, so the value 0 is tracked on the side
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(8);
+    }
+
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        table = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        if (value == FREE) {
+            return hasZero;
+        }
+        int i = slot(value);
+        while (table[i] != FREE) {
+            if (table[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean add(int value) {
+        if (value == FREE) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(value);
+        while (table[i] != FREE) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value == FREE) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(value);
+        while (table[i] != value) {
+            if (table[i] == FREE) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // Pull later entries of the same probe run back into the gap
+        int gap = i;
+        i = (i + 1) & mask;
+        while (table[i] != FREE) {
+            int home = slot(table[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = table[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        table[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(table, FREE);
+        hasZero = false;
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (hasZero) {
+            action.accept(FREE);
+        }
+        for (int value : table) {
+            if (value != FREE) {
+                action.accept(value);
+            }
+        }
+    }
+
+    private int slot(int value) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int value : old) {
+            if (value != FREE) {
+                int i = slot(value);
+                while (table[i] != FREE) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+}
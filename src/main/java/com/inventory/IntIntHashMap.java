@@ -0,0 +1,145 @@
+package com.inventory;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from int keys to int values, the counterpart of
+ * {@link IntHashSet} where a HashMap<Integer, Integer> would box both.
+ * Linear probing with backward-shift deletion, so no tombstones.
+ */
+public class IntIntHashMap {
+
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    // FREE marks empty slots, so the key 0 is tracked on the side
+    private boolean hasZero;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(8);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The value for {@code key}, or {@code missing} if it has none. */
+    public int get(int key, int missing) {
+        if (key == FREE) {
+            return hasZero ? zeroValue : missing;
+        }
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return missing;
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public boolean remove(int key) {
+        if (key == FREE) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // Pull later entries of the same probe run back into the gap
+        int gap = i;
+        i = (i + 1) & mask;
+        while (keys[i] != FREE) {
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasZero = false;
+        size = 0;
+    }
+
+    /** Approximate bytes held by the table. */
+    public long getMemoryFootprint() {
+        return 2L * Integer.BYTES * keys.length;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != FREE) {
+                int i = slot(oldKeys[j]);
+                while (keys[i] != FREE) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
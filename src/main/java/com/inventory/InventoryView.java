@@ -1,34 +1,105 @@
 package com.inventory;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
+import javafx.util.Callback;
+import javafx.util.Duration;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 public class InventoryView {
 
     private final TableView<Item> tableView = new TableView<>();
     private final TextField nameInput = new TextField();
+    private final TextField skuInput = new TextField();
     private final TextField quantityInput = new TextField();
     private final TextField priceInput = new TextField();
+    private final TextField adjustInput = new TextField();
     private final TextField searchInput = new TextField();
+    private final ComboBox<SearchMode> searchModeBox = new ComboBox<>();
 
     private final Button newButton = new Button("Clear");
     private final Button saveButton = new Button("Save");
     private final Button deleteButton = new Button("Delete");
+    private final Button receiveButton = new Button("Receive");
+    private final Button issueButton = new Button("Issue");
+    private final Button importButton = new Button("Import CSV...");
+    private final Button exportButton = new Button("Export...");
+    private final MenuItem bulkPriceItem = new MenuItem("Adjust Price by %...");
+    private final MenuItem bulkQuantityItem = new MenuItem("Set Quantity...");
+    private final MenuItem bulkDeleteItem = new MenuItem("Delete Selected...");
+    private final MenuButton bulkButton = new MenuButton("Bulk Edit", null,
+            bulkPriceItem, bulkQuantityItem, bulkDeleteItem);
 
-    private final ObservableList<Item> itemList = FXCollections.observableArrayList();
-    private FilteredList<Item> filteredData;
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+
+    private final int pagingThreshold = AppConfig.getInt("inventory.paging.threshold", 50_000);
+    private final int pageSize = AppConfig.getInt("inventory.paging.pageSize", 200);
+    private final int maxPages = AppConfig.getInt("inventory.paging.maxPages", 50);
+
+    // Column store keeps large catalogs in a few primitive arrays instead of one object per row
+    private final ObservableList<Item> itemList = AppConfig.getBoolean("inventory.columnarStore", false)
+            ? new ItemStore()
+            : FXCollections.observableArrayList();
+    private IndexFilteredList<Item> filteredData;
+    private final TrigramIndex nameIndex = AppConfig.getBoolean("inventory.search.trigramIndex", true)
+            ? new TrigramIndex()
+            : null;
+    // Set instead of itemList once the catalog is too large to hold in memory
+    private PagedItemList pagedList;
+    private Task<LoadResult> loadTask;
+    private boolean saving;
+
+    private final int searchLimit = AppConfig.getInt("inventory.search.limit", 500);
+    private final PauseTransition searchDebounce = new PauseTransition(
+            Duration.millis(AppConfig.getLong("inventory.search.debounceMs", 250)));
+    private final ItemRepository items = Database.items();
+    private final ItemSearch itemSearch = new ItemSearch(items);
+    private final ItemSupplierRepository itemSuppliers = Database.itemSuppliers();
+    // Supplier names per item id for the table column, read with the items in one join
+    private final Map<Integer, String> supplierNames = new HashMap<>();
+    private final TableColumn<Item, String> suppliersColumn = new TableColumn<>("Suppliers");
+    private final ItemSuppliersPane suppliersPane;
+    private final ObservableList<Item> searchResults = FXCollections.observableArrayList();
+    private Task<List<Item>> searchTask;
+    private boolean showingSearchResults;
+
+    private final DashboardMetrics metrics;
+    private final StockLedger ledger;
+    private final SkuIndex skuIndex;
+    private final WriteBehind writeBehind;
+    // Latest queued edit per item; only its outcome is reported, earlier ones were merged into it
+    private final Map<Integer, Item> queuedEdits = new HashMap<>();
+
+    public InventoryView(DashboardMetrics metrics, DeltaSync sync, StockLedger ledger, SkuIndex skuIndex,
+            WriteBehind writeBehind, SupplierCache supplierCache) {
+        this.metrics = metrics;
+        this.ledger = ledger;
+        this.skuIndex = skuIndex;
+        this.writeBehind = writeBehind;
+        this.suppliersPane = new ItemSuppliersPane(busyIndicator, supplierCache, this::showLinks);
+        sync.onItems(this::applyRemoteChanges);
+        sync.onSuppliers(this::applyRemoteSupplierChanges);
+    }
 
     public VBox getView() {
         VBox root = new VBox(10);
@@ -40,7 +111,8 @@ public class InventoryView {
         searchBox.setAlignment(Pos.CENTER_LEFT);
         searchInput.setPromptText("Enter item name...");
         HBox.setHgrow(searchInput, Priority.ALWAYS);
-        searchBox.getChildren().addAll(new Label("Search by Name:"), searchInput);
+        searchBox.getChildren().addAll(new Label("Search by Name:"), searchInput, searchModeBox, busyIndicator,
+                bulkButton, importButton, exportButton);
 
         // Table
         setupTable();
@@ -55,8 +127,8 @@ public class InventoryView {
 
         root.getChildren().addAll(searchBox, splitPane);
 
-        loadData();
         setupFiltering();
+        loadData();
         setupSelectionListener();
         setupButtonListeners();
         updateButtonStates();
@@ -66,22 +138,41 @@ public class InventoryView {
 
     private void setupTable() {
         TableColumn<Item, Integer> idColumn = new TableColumn<>("ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        idColumn.setCellValueFactory(cellValue(Item::getId));
         idColumn.setPrefWidth(75);
 
         TableColumn<Item, String> nameColumn = new TableColumn<>("Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameColumn.setCellValueFactory(cellValue(Item::getName));
         nameColumn.setPrefWidth(200);
 
+        TableColumn<Item, String> skuColumn = new TableColumn<>("SKU");
+        skuColumn.setCellValueFactory(cellValue(Item::getSku));
+        skuColumn.setPrefWidth(120);
+
         TableColumn<Item, Integer> quantityColumn = new TableColumn<>("Quantity");
-        quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+        quantityColumn.setCellValueFactory(cellValue(Item::getQuantity));
         quantityColumn.setPrefWidth(100);
 
         TableColumn<Item, Double> priceColumn = new TableColumn<>("Price");
-        priceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        priceColumn.setCellValueFactory(cellValue(Item::getPrice));
         priceColumn.setPrefWidth(100);
 
-        tableView.getColumns().addAll(idColumn, nameColumn, quantityColumn, priceColumn);
+        suppliersColumn.setCellValueFactory(cellValue(item -> supplierNames.get(item.getId())));
+        suppliersColumn.setPrefWidth(160);
+
+        tableView.getColumns().addAll(idColumn, nameColumn, skuColumn, quantityColumn, priceColumn, suppliersColumn);
+        // Ctrl+A selects every row the filter shows, for the bulk actions
+        tableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+    }
+
+    // Reads the getter directly instead of looking the property up by reflection for every cell
+    private static <T> Callback<TableColumn.CellDataFeatures<Item, T>, ObservableValue<T>> cellValue(
+            Function<Item, T> getter) {
+        return cell -> {
+            Item item = cell.getValue();
+            // Rows of a PagedItemList read as null until their page arrives
+            return new ReadOnlyObjectWrapper<>(item == null ? null : getter.apply(item));
+        };
     }
 
     private VBox createDetailsPane() {
@@ -97,95 +188,268 @@ public class InventoryView {
         grid.setVgap(10);
 
         nameInput.setPromptText("Name");
+        skuInput.setPromptText("Barcode (optional)");
         quantityInput.setPromptText("Quantity");
         priceInput.setPromptText("Price");
 
         grid.add(new Label("Name"), 0, 0);
         grid.add(nameInput, 1, 0);
-        grid.add(new Label("Quantity"), 0, 1);
-        grid.add(quantityInput, 1, 1);
-        grid.add(new Label("Price"), 0, 2);
-        grid.add(priceInput, 1, 2);
+        grid.add(new Label("SKU"), 0, 1);
+        grid.add(skuInput, 1, 1);
+        grid.add(new Label("Quantity"), 0, 2);
+        grid.add(quantityInput, 1, 2);
+        grid.add(new Label("Price"), 0, 3);
+        grid.add(priceInput, 1, 3);
 
         // Buttons
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.getChildren().addAll(newButton, saveButton, deleteButton);
 
-        detailsBox.getChildren().addAll(detailsTitle, grid, buttonBox);
+        // Receive and issue add to or take from whatever is in stock now, even if another station just changed it
+        adjustInput.setPromptText("Amount");
+        adjustInput.setPrefColumnCount(6);
+        HBox stockBox = new HBox(10);
+        stockBox.setAlignment(Pos.CENTER);
+        stockBox.getChildren().addAll(new Label("Stock"), adjustInput, receiveButton, issueButton);
+
+        detailsBox.getChildren().addAll(detailsTitle, grid, buttonBox, stockBox, suppliersPane.getView());
         return detailsBox;
     }
 
     private void setupFiltering() {
-        filteredData = new FilteredList<>(itemList, p -> true);
-        searchInput.textProperty().addListener((obs, oldVal, newVal) -> {
-            filteredData.setPredicate(item -> {
-                if (newVal == null || newVal.isEmpty()) {
-                    return true;
-                }
-                String lowerCaseFilter = newVal.toLowerCase();
-                return item.getName().toLowerCase().contains(lowerCaseFilter);
-            });
-        });
+        if (nameIndex != null) {
+            // Registered before the filtered list so the index is current when the filter re-tests a changed row
+            itemList.addListener(this::updateNameIndex);
+        }
+        filteredData = new IndexFilteredList<>(itemList);
+        searchModeBox.getItems().setAll(SearchMode.values());
+        searchModeBox.setValue(SearchMode.FILTER);
+
+        searchInput.textProperty().addListener((obs, oldVal, newVal) -> onSearchChanged());
+        searchModeBox.valueProperty().addListener((obs, oldVal, newVal) -> onSearchChanged());
+        searchDebounce.setOnFinished(e -> runDatabaseSearch());
         tableView.setItems(filteredData);
     }
 
+    private void onSearchChanged() {
+        SearchMode mode = searchModeBox.getValue();
+        if (mode == null) {
+            return;
+        }
+        if (mode == SearchMode.FILTER) {
+            searchDebounce.stop();
+            cancelSearch();
+            showBaseItems();
+            applyFilter(searchInput.getText());
+        } else {
+            if (nameIndex != null) {
+                nameIndex.clearLiveQuery();
+            }
+            filteredData.setFilter(null);
+            // Wait for a pause in typing so only the last keystroke reaches the database
+            searchDebounce.playFromStart();
+        }
+    }
+
+    private void applyFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            if (nameIndex != null) {
+                nameIndex.clearLiveQuery();
+            }
+            filteredData.setFilter(null);
+            return;
+        }
+        if (nameIndex != null && TrigramIndex.canSearch(filter)) {
+            IntHashSet matches = nameIndex.search(filter);
+            filteredData.setFilter(row -> matches.contains(idAt(row)));
+            return;
+        }
+        filteredData.setFilter(row -> TrigramIndex.containsIgnoreCase(nameAt(row), filter));
+    }
+
+    // The column store answers these from its arrays, without building the row's Item
+    private int idAt(int row) {
+        return itemList instanceof ItemStore store ? store.getId(row) : itemList.get(row).getId();
+    }
+
+    private String nameAt(int row) {
+        return itemList instanceof ItemStore store ? store.getName(row) : itemList.get(row).getName();
+    }
+
+    private void updateNameIndex(ListChangeListener.Change<? extends Item> change) {
+        while (change.next()) {
+            if (change.wasRemoved() && change.getList().size() == change.getAddedSize()) {
+                // Whole list replaced, e.g. by a reload
+                nameIndex.clear();
+            } else if (change.wasRemoved()) {
+                for (Item item : change.getRemoved()) {
+                    nameIndex.remove(item.getId());
+                }
+            }
+            if (change.wasAdded()) {
+                for (Item item : change.getAddedSubList()) {
+                    nameIndex.add(item.getId(), item.getName());
+                }
+            }
+        }
+    }
+
+    private void runDatabaseSearch() {
+        cancelSearch();
+        String query = searchInput.getText();
+        if (query == null || query.isBlank()) {
+            showBaseItems();
+            return;
+        }
+
+        ItemSearch.Mode mode = searchModeBox.getValue() == SearchMode.WORDS
+                ? ItemSearch.Mode.WORDS
+                : ItemSearch.Mode.PREFIX;
+        searchTask = busyIndicator.track(DbExecutor.submit("inventory.search",
+                conn -> itemSearch.search(conn, query, mode, searchLimit),
+                items -> {
+                    searchResults.setAll(items);
+                    showingSearchResults = true;
+                    tableView.setItems(searchResults);
+                    tableView.setPlaceholder(new Label("No matching items"));
+                },
+                e -> System.out.println("Database Error on searching items: " + e.getMessage())));
+    }
+
+    private void cancelSearch() {
+        if (searchTask != null) {
+            searchTask.cancel();
+            searchTask = null;
+        }
+        itemSearch.cancelRunning();
+    }
+
+    private void showBaseItems() {
+        if (showingSearchResults) {
+            showingSearchResults = false;
+            searchResults.clear();
+        }
+        tableView.setItems(pagedList != null ? pagedList : filteredData);
+        tableView.setPlaceholder(new Label("No items found"));
+    }
+
     private void setupSelectionListener() {
         tableView.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldSelection, newSelection) -> {
                     if (newSelection != null) {
                         populateItemDetails(newSelection);
                     }
+                    suppliersPane.show(newSelection);
                     updateButtonStates();
                 });
+        tableView.getSelectionModel().getSelectedItems().addListener(
+                (ListChangeListener<Item>) change -> updateButtonStates());
     }
 
     private void setupButtonListeners() {
         newButton.setOnAction(e -> handleNewItem());
         saveButton.setOnAction(e -> handleSaveItem());
         deleteButton.setOnAction(e -> handleDeleteItem());
+        receiveButton.setOnAction(e -> handleAdjustStock(1));
+        issueButton.setOnAction(e -> handleAdjustStock(-1));
+        importButton.setOnAction(e -> CsvImportDialog.show(tableView.getScene().getWindow(),
+                CsvImporter.Kind.ITEMS, () -> {
+                    loadData();
+                    metrics.resync();
+                }));
+        exportButton.setOnAction(e -> ExportDialog.show(tableView.getScene().getWindow(),
+                DataExporter.Source.INVENTORY, busyIndicator));
+        bulkPriceItem.setOnAction(e -> handleBulkPrice());
+        bulkQuantityItem.setOnAction(e -> handleBulkQuantity());
+        bulkDeleteItem.setOnAction(e -> handleBulkDelete());
 
         // Add listeners to text fields to update button states
         nameInput.textProperty().addListener((obs, oldVal, newVal) -> updateButtonStates());
+        skuInput.textProperty().addListener((obs, oldVal, newVal) -> updateButtonStates());
         quantityInput.textProperty().addListener((obs, oldVal, newVal) -> updateButtonStates());
         priceInput.textProperty().addListener((obs, oldVal, newVal) -> updateButtonStates());
     }
 
     private void updateButtonStates() {
         boolean hasText = !nameInput.getText().trim().isEmpty() ||
+                !skuInput.getText().trim().isEmpty() ||
                 !quantityInput.getText().trim().isEmpty() ||
                 !priceInput.getText().trim().isEmpty();
         boolean isItemSelected = tableView.getSelectionModel().getSelectedItem() != null;
 
         newButton.setDisable(!hasText);
-        deleteButton.setDisable(!isItemSelected);
-        saveButton.setDisable(nameInput.getText().trim().isEmpty());
+        deleteButton.setDisable(!isItemSelected || saving);
+        receiveButton.setDisable(!isItemSelected || saving);
+        issueButton.setDisable(!isItemSelected || saving);
+        saveButton.setDisable(nameInput.getText().trim().isEmpty() || saving);
+        bulkButton.setDisable(tableView.getSelectionModel().getSelectedItems().isEmpty() || saving);
+    }
+
+    private void setSaving(boolean saving) {
+        this.saving = saving;
+        updateButtonStates();
     }
 
     private void populateItemDetails(Item item) {
         nameInput.setText(item.getName());
+        skuInput.setText(item.getSku() == null ? "" : item.getSku());
         quantityInput.setText(String.valueOf(item.getQuantity()));
         priceInput.setText(String.valueOf(item.getPrice()));
     }
 
     private void loadData() {
-        itemList.clear();
-        String sql = "SELECT * FROM inventory";
-
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                itemList.add(new Item(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getDouble("price")));
+        // A newer load always supersedes one that is still in flight
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        tableView.setPlaceholder(new Label("Loading items..."));
+
+        loadTask = busyIndicator.track(DbExecutor.submit("inventory.load", conn -> {
+            int count = items.count(conn);
+            if (count >= pagingThreshold) {
+                return new LoadResult(count, items.maxId(conn), null, null);
             }
-        } catch (SQLException e) {
+            return new LoadResult(count, 0, items.findAll(conn), itemSuppliers.findAll(conn));
+        }, result -> {
+            showResult(result);
+            tableView.setPlaceholder(new Label("No items found"));
+        }, e -> {
             System.out.println(e.getMessage());
+            tableView.setPlaceholder(new Label("Could not load items"));
+        }));
+    }
+
+    private void showResult(LoadResult result) {
+        if (pagedList != null) {
+            pagedList.dispose();
+            pagedList = null;
         }
+        boolean paged = result.items() == null;
+        if (paged) {
+            itemList.clear();
+            pagedList = new PagedItemList(items, result.count(), result.maxId(), pageSize, maxPages);
+        } else {
+            itemList.setAll(result.items());
+        }
+        supplierNames.clear();
+        if (!paged) {
+            putSupplierNames(result.links());
+        }
+        // Reading them page by page as rows scroll into view is not worth it; the details pane still shows them
+        suppliersColumn.setVisible(!paged);
+        if (!showingSearchResults) {
+            tableView.setItems(pagedList != null ? pagedList : filteredData);
+        }
+
+        // Sorting and the in-memory filter would touch every row, defeating lazy loading
+        tableView.getColumns().forEach(column -> column.setSortable(!paged));
+        List<SearchMode> modes = paged
+                ? List.of(SearchMode.PREFIX, SearchMode.WORDS)
+                : List.of(SearchMode.values());
+        SearchMode current = searchModeBox.getValue();
+        searchModeBox.getItems().setAll(modes);
+        searchModeBox.setValue(modes.contains(current) ? current : SearchMode.PREFIX);
     }
 
     private void handleNewItem() {
@@ -204,74 +468,547 @@ public class InventoryView {
     }
 
     private void handleAddItem() {
-        if (!validateInput())
+        if (!validateInput(0))
             return;
 
-        String sql = "INSERT INTO inventory(name, quantity, price) VALUES(?,?,?)";
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameInput.getText());
-            pstmt.setInt(2, Integer.parseInt(quantityInput.getText()));
-            pstmt.setDouble(3, Double.parseDouble(priceInput.getText()));
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
+        String name = nameInput.getText();
+        String sku = SkuIndex.normalize(skuInput.getText());
+        int quantity = Integer.parseInt(quantityInput.getText());
+        double price = Double.parseDouble(priceInput.getText());
+
+        setSaving(true);
+        busyIndicator.track(DbExecutor.submit("inventory.add",
+                conn -> items.insert(conn, name, sku, quantity, price), item -> {
+            setSaving(false);
+            skuIndex.put(item.getId(), item.getSku());
+            // Delta sync may have delivered the new row before this callback ran
+            if (pagedList != null && item.getId() > pagedList.getMaxId()) {
+                metrics.itemAdded(item);
+                pagedList.append(item);
+            } else if (pagedList == null && indexOfItem(item.getId()) < 0) {
+                metrics.itemAdded(item);
+                itemList.add(item);
+            }
+            clearFields();
+        }, e -> {
+            setSaving(false);
             System.out.println(e.getMessage());
-        }
-        loadData();
-        clearFields();
+            loadData();
+        }));
     }
 
     private void handleUpdateItem(Item selectedItem) {
-        if (!validateInput())
+        if (!validateInput(selectedItem.getId()))
             return;
 
-        String sql = "UPDATE inventory SET name = ?, quantity = ?, price = ? WHERE id = ?";
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameInput.getText());
-            pstmt.setInt(2, Integer.parseInt(quantityInput.getText()));
-            pstmt.setDouble(3, Double.parseDouble(priceInput.getText()));
-            pstmt.setInt(4, selectedItem.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
+        String name = nameInput.getText();
+        String sku = SkuIndex.normalize(skuInput.getText());
+        int quantity = Integer.parseInt(quantityInput.getText());
+        double price = Double.parseDouble(priceInput.getText());
+        // Carries the version this form was filled from; the update only lands if the row still has it.
+        // The quantity is saved as the change from what the form showed, so other stations' movements survive.
+        saveUpdate(selectedItem, new Item(selectedItem.getId(), name, quantity, price, selectedItem.getVersion(), sku),
+                quantity - selectedItem.getQuantity());
+    }
+
+    private void saveUpdate(Item selectedItem, Item edited, int quantityChange) {
+        WriteBehind.Queued queued = writeBehind.updateItem(edited, quantityChange);
+        queuedEdits.put(edited.getId(), edited);
+        // Shown at once with the version the row will have, so a further edit can follow without waiting
+        applyUpdate(selectedItem, new Item(edited.getId(), edited.getName(), edited.getQuantity(), edited.getPrice(),
+                queued.version(), edited.getSku()));
+        queued.written().whenComplete((rows, e) -> Platform.runLater(() -> {
+            boolean latest = queuedEdits.get(edited.getId()) == edited;
+            if (latest) {
+                queuedEdits.remove(edited.getId());
+            }
+            if (e != null) {
+                System.out.println(e.getMessage());
+                showAlert("Not Saved", "Your change to " + edited.getName() + " could not be saved.");
+                loadData();
+                metrics.resync();
+            } else if (rows == 0 && latest) {
+                checkConflict(selectedItem, edited);
+            }
+        }));
+    }
+
+    private void checkConflict(Item selectedItem, Item edited) {
+        busyIndicator.track(DbExecutor.submit("inventory.checkConflict",
+                conn -> items.findById(conn, edited.getId()), current -> {
+            if (current == null) {
+                showAlert("Item Deleted", "This item was deleted on another station.");
+                skuIndex.remove(edited.getId());
+                Item removed = removeItem(edited.getId());
+                if (removed != null) {
+                    metrics.itemRemoved(removed);
+                }
+                clearFields();
+            } else {
+                resolveConflict(selectedItem, edited, current);
+            }
+        }, e -> {
             System.out.println(e.getMessage());
+            loadData();
+        }));
+    }
+
+    private void resolveConflict(Item selectedItem, Item edited, Item current) {
+        ButtonType overwrite = new ButtonType("Save Mine", ButtonBar.ButtonData.YES);
+        ButtonType reload = new ButtonType("Load Theirs", ButtonBar.ButtonData.NO);
+        Alert alert = new Alert(Alert.AlertType.WARNING, null, overwrite, reload);
+        alert.setTitle("Edit Conflict");
+        alert.setHeaderText("This item was changed on another station while you were editing it.");
+        alert.setContentText(String.format("Theirs: %s, quantity %d, price %s%nYours:  %s, quantity %d, price %s",
+                current.getName(), current.getQuantity(), current.getPrice(),
+                edited.getName(), edited.getQuantity(), edited.getPrice()));
+
+        if (alert.showAndWait().orElse(reload) == overwrite) {
+            saveUpdate(selectedItem, new Item(edited.getId(), edited.getName(), edited.getQuantity(),
+                    edited.getPrice(), current.getVersion(), edited.getSku()),
+                    edited.getQuantity() - current.getQuantity());
+        } else {
+            applyUpdate(selectedItem, current);
+            populateItemDetails(current);
         }
-        loadData();
+    }
+
+    private void applyUpdate(Item selectedItem, Item updated) {
+        // Measured from the row as shown now, which delta sync may already have moved on
+        int index = pagedList == null ? indexOfItem(updated.getId()) : -1;
+        metrics.itemUpdated(index >= 0 ? itemList.get(index) : selectedItem, updated);
+        skuIndex.put(updated.getId(), updated.getSku());
+        if (!replaceItem(updated)) {
+            // Row is not in the list any more, so the list is out of date
+            loadData();
+            return;
+        }
+        tableView.getSelectionModel().select(updated);
+    }
+
+    private void handleAdjustStock(int sign) {
+        Item selectedItem = tableView.getSelectionModel().getSelectedItem();
+        if (selectedItem == null) {
+            showAlert("No Selection", "Please select an item in the table first.");
+            return;
+        }
+        int amount;
+        try {
+            amount = Integer.parseInt(adjustInput.getText().trim());
+        } catch (NumberFormatException e) {
+            amount = 0;
+        }
+        if (amount <= 0) {
+            showAlert("Invalid Input", "Please enter a whole number greater than zero.");
+            return;
+        }
+
+        int id = selectedItem.getId();
+        int delta = sign * amount;
+        if (delta > 0) {
+            // A receipt cannot fail the stock check, so it joins the ledger's next batch without a round trip
+            ledger.record(id, delta, StockLedger.Reason.RECEIVE).whenComplete((ignored, e) -> {
+                if (e != null) {
+                    Platform.runLater(() -> {
+                        System.out.println(e.getMessage());
+                        loadData();
+                    });
+                }
+            });
+            applyUpdate(selectedItem, new Item(id, selectedItem.getName(), selectedItem.getQuantity() + delta,
+                    selectedItem.getPrice(), selectedItem.getVersion(), selectedItem.getSku()));
+            adjustInput.clear();
+            return;
+        }
+        setSaving(true);
+        busyIndicator.track(DbExecutor.submit("inventory.adjustStock", conn -> {
+            Item adjusted = items.adjustQuantity(conn, id, delta);
+            return adjusted != null ? new UpdateResult(true, adjusted)
+                    : new UpdateResult(false, items.findById(conn, id));
+        }, result -> {
+            setSaving(false);
+            if (result.saved()) {
+                applyUpdate(selectedItem, result.current());
+                adjustInput.clear();
+            } else if (result.current() == null) {
+                showAlert("Item Deleted", "This item was deleted on another station.");
+                loadData();
+            } else {
+                showAlert("Not Enough Stock", "Only " + result.current().getQuantity() + " in stock.");
+                applyUpdate(selectedItem, result.current());
+            }
+        }, e -> {
+            setSaving(false);
+            System.out.println(e.getMessage());
+            loadData();
+        }));
     }
 
     private void handleDeleteItem() {
         Item selectedItem = tableView.getSelectionModel().getSelectedItem();
         if (selectedItem != null) {
-            String sql = "DELETE FROM inventory WHERE id = ?";
-            try (Connection conn = Database.getConnection();
-                    PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, selectedItem.getId());
-                pstmt.executeUpdate();
-            } catch (SQLException e) {
-                System.out.println(e.getMessage());
+            int id = selectedItem.getId();
+            skuIndex.remove(id);
+            Item removed = removeItem(id);
+            if (removed != null || pagedList != null) {
+                metrics.itemRemoved(removed != null ? removed : selectedItem);
             }
-            loadData();
             clearFields();
+            writeBehind.deleteItem(id).whenComplete((rows, e) -> {
+                if (e != null) {
+                    Platform.runLater(() -> {
+                        System.out.println(e.getMessage());
+                        showAlert("Not Deleted", selectedItem.getName() + " could not be deleted.");
+                        loadData();
+                        metrics.resync();
+                        skuIndex.load();
+                    });
+                }
+            });
         } else {
             showAlert("No Selection", "Please select an item in the table to delete.");
         }
     }
 
-    private boolean validateInput() {
-        String name = nameInput.getText();
-        if (name == null || name.isEmpty()) {
-            showAlert("Validation Error", "Name field cannot be empty.");
-            return false;
+    // Rows of a PagedItemList whose page is not loaded read as null and are left out
+    private List<Item> selectedItems() {
+        List<Item> selected = new ArrayList<>();
+        for (Item item : tableView.getSelectionModel().getSelectedItems()) {
+            if (item != null) {
+                selected.add(item);
+            }
         }
-        try {
-            int quantity = Integer.parseInt(quantityInput.getText());
-            double price = Double.parseDouble(priceInput.getText());
-            if (quantity < 0 || price < 0) {
-                showAlert("Validation Error", "Quantity and price cannot be negative.");
-                return false;
+        return selected;
+    }
+
+    // Tells the user about selected rows selectedItems() leaves out, so a bulk edit never covers fewer silently
+    private String skippedNote(List<Item> selected) {
+        int skipped = tableView.getSelectionModel().getSelectedIndices().size() - selected.size();
+        return skipped == 0 ? "" : "\n(" + skipped + " selected rows are not loaded yet and are left out;"
+                + " scroll to them to include them.)";
+    }
+
+    private void handleBulkPrice() {
+        List<Item> selected = selectedItems();
+        Double percent = askNumber("Adjust Price", "Change the price of " + selected.size()
+                + " items by this percentage (negative for a discount):" + skippedNote(selected));
+        if (percent == null) {
+            return;
+        }
+        if (percent <= -100) {
+            showAlert("Invalid Input", "Prices cannot drop by 100% or more.");
+            return;
+        }
+        double factor = 1 + percent / 100;
+        // Filled off the FX thread before the rows are patched; the rows show the prices the database stored
+        Map<Integer, Double> prices = new HashMap<>();
+        runBulk(selected, conn -> {
+            prices.putAll(items.scalePrices(conn, ids(selected), factor));
+            return prices.size();
+        }, item -> new Item(item.getId(), item.getName(), item.getQuantity(), prices.get(item.getId()),
+                item.getVersion() + 1, item.getSku()));
+    }
+
+    private void handleBulkQuantity() {
+        List<Item> selected = selectedItems();
+        Double quantity = askNumber("Set Quantity", "Set the stock of " + selected.size() + " items to:"
+                + skippedNote(selected));
+        if (quantity == null) {
+            return;
+        }
+        if (quantity < 0 || quantity != Math.rint(quantity) || quantity > Integer.MAX_VALUE) {
+            showAlert("Invalid Input", "Please enter a whole number of zero or more.");
+            return;
+        }
+        int stock = quantity.intValue();
+        runBulk(selected, conn -> items.setQuantities(conn, ids(selected), stock), item -> new Item(item.getId(),
+                item.getName(), stock, item.getPrice(), item.getVersion() + 1, item.getSku()));
+    }
+
+    private void handleBulkDelete() {
+        List<Item> selected = selectedItems();
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, null, ButtonType.OK, ButtonType.CANCEL);
+        confirm.setTitle("Delete Items");
+        confirm.setHeaderText("Delete " + selected.size() + " items? This cannot be undone." + skippedNote(selected));
+        if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+        runBulk(selected, conn -> items.deleteIn(conn, ids(selected)), null);
+    }
+
+    /**
+     * Runs one set-based statement for the selection and then patches the
+     * rows in place with {@code change}, or removes them when it is null.
+     * When the database changed fewer rows than were selected, another
+     * station got there first and the list is reloaded instead.
+     */
+    private void runBulk(List<Item> selected, DbExecutor.SqlWork<Integer> work, UnaryOperator<Item> change) {
+        if (selected.isEmpty()) {
+            return;
+        }
+        setSaving(true);
+        busyIndicator.track(DbExecutor.submit("inventory.bulkEdit", work, rows -> {
+            setSaving(false);
+            Set<Integer> ids = new HashSet<>(ids(selected));
+            if (rows != selected.size() || pagedList != null) {
+                // A page that is not loaded cannot be patched, and the dashboard needs every row to apply deltas
+                loadData();
+                metrics.resync();
+            } else if (change == null) {
+                removeItems(ids);
+            } else {
+                patchItems(ids, change);
+            }
+            if (change == null) {
+                ids.forEach(skuIndex::remove);
+                clearFields();
             }
+        }, e -> {
+            setSaving(false);
+            System.out.println(e.getMessage());
+            showAlert("Bulk Edit Failed", "Nothing was changed: " + e.getMessage());
+            loadData();
+        }));
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        List<Integer> ids = new ArrayList<>(items.size());
+        items.forEach(item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    private Double askNumber(String title, String prompt) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle(title);
+        dialog.setHeaderText(null);
+        dialog.setContentText(prompt);
+        String text = dialog.showAndWait().orElse(null);
+        if (text == null) {
+            return null;
+        }
+        double value;
+        try {
+            value = Double.parseDouble(text.trim());
         } catch (NumberFormatException e) {
-            showAlert("Invalid Input", "Please enter a valid number for quantity and price.");
+            value = Double.NaN;
+        }
+        // parseDouble also takes "NaN", "Infinity" and overflows such as "1e400"
+        if (!Double.isFinite(value)) {
+            showAlert("Invalid Input", "Please enter a number.");
+            return null;
+        }
+        return value;
+    }
+
+    // One pass over the list however many rows are patched
+    private void patchItems(Set<Integer> ids, UnaryOperator<Item> change) {
+        for (int i = 0; i < itemList.size(); i++) {
+            if (ids.contains(idAt(i))) {
+                Item local = itemList.get(i);
+                Item updated = change.apply(local);
+                itemList.set(i, updated);
+                metrics.itemUpdated(local, updated);
+            }
+        }
+        searchResults.replaceAll(item -> ids.contains(item.getId()) ? change.apply(item) : item);
+    }
+
+    private void removeItems(Set<Integer> ids) {
+        List<Item> kept = new ArrayList<>(itemList.size());
+        for (Item item : itemList) {
+            if (ids.contains(item.getId())) {
+                metrics.itemRemoved(item);
+            } else {
+                kept.add(item);
+            }
+        }
+        // One change for the whole list rather than a shift of the backing array per removed row
+        itemList.setAll(kept);
+        searchResults.removeIf(item -> ids.contains(item.getId()));
+    }
+
+    private boolean replaceItem(Item item) {
+        boolean found = false;
+        for (int i = 0; i < searchResults.size(); i++) {
+            if (searchResults.get(i).getId() == item.getId()) {
+                searchResults.set(i, item);
+                found = true;
+            }
+        }
+        if (pagedList != null) {
+            // A page that is not loaded will read the new values when it is
+            return pagedList.replace(item) || found;
+        }
+        int index = indexOfItem(item.getId());
+        if (index < 0) {
+            return found;
+        }
+        itemList.set(index, item);
+        return true;
+    }
+
+    // Returns the removed row, or null if it was not in the loaded list
+    private Item removeItem(int id) {
+        searchResults.removeIf(item -> item.getId() == id);
+        if (pagedList != null) {
+            pagedList.removeById(id);
+            return null;
+        }
+        int index = indexOfItem(id);
+        return index >= 0 ? itemList.remove(index) : null;
+    }
+
+    private void applyRemoteChanges(DeltaSync.Delta<Item> delta) {
+        if (delta.overflow()) {
+            loadData();
+            metrics.resync();
+            return;
+        }
+        Set<Integer> deleted = new HashSet<>(delta.deletedIds());
+        Map<Integer, Item> changed = new HashMap<>();
+        for (Item item : delta.changed()) {
+            // Local edits not yet written win over what the other station saved before them
+            if (!deleted.contains(item.getId()) && !writeBehind.isItemPending(item.getId())) {
+                changed.put(item.getId(), item);
+            }
+        }
+        for (Item item : changed.values()) {
+            patchSearchResults(item);
+        }
+        searchResults.removeIf(item -> deleted.contains(item.getId()));
+
+        if (pagedList != null) {
+            applyRemoteChangesPaged(changed.values(), deleted);
+            return;
+        }
+        refreshSupplierNames(new ArrayList<>(changed.keySet()));
+
+        // One pass over the list however many rows changed
+        List<Integer> removeAt = new ArrayList<>();
+        for (int i = 0; i < itemList.size(); i++) {
+            int id = idAt(i);
+            if (deleted.contains(id)) {
+                removeAt.add(i);
+                continue;
+            }
+            Item remote = changed.remove(id);
+            if (remote != null) {
+                Item local = itemList.get(i);
+                if (!local.equals(remote)) {
+                    itemList.set(i, remote);
+                    metrics.itemUpdated(local, remote);
+                }
+            }
+        }
+        for (int i = removeAt.size() - 1; i >= 0; i--) {
+            metrics.itemRemoved(itemList.remove((int) removeAt.get(i)));
+        }
+        // Whatever is left was inserted on another station
+        for (Item item : changed.values()) {
+            itemList.add(item);
+            metrics.itemAdded(item);
+        }
+    }
+
+    // Links are ordered by item, so each item's names come out in one run
+    private void putSupplierNames(List<ItemSupplier> links) {
+        for (ItemSupplier link : links) {
+            supplierNames.merge(link.itemId(), link.supplierName(), (names, name) -> names + ", " + name);
+        }
+    }
+
+    private void showLinks(int itemId, List<ItemSupplier> links) {
+        if (pagedList != null) {
+            return;
+        }
+        supplierNames.remove(itemId);
+        putSupplierNames(links);
+        tableView.refresh();
+    }
+
+    // Changing an item's links touches the item, so the rows delta sync reports are the ones to re-read
+    private void refreshSupplierNames(List<Integer> ids) {
+        if (ids.isEmpty() || pagedList != null) {
+            return;
+        }
+        busyIndicator.track(DbExecutor.submit("inventory.refreshSuppliers",
+                conn -> itemSuppliers.findForItems(conn, ids), links -> {
+            ids.forEach(supplierNames::remove);
+            putSupplierNames(links);
+            Map<Integer, List<ItemSupplier>> byItem = new HashMap<>();
+            links.forEach(link -> byItem.computeIfAbsent(link.itemId(), id -> new ArrayList<>()).add(link));
+            ids.forEach(id -> suppliersPane.update(id, byItem.getOrDefault(id, List.of())));
+            tableView.refresh();
+        }, e -> System.out.println("Database Error on loading item suppliers: " + e.getMessage())));
+    }
+
+    // A renamed or deleted supplier shows up in the links of any number of items
+    private void applyRemoteSupplierChanges(DeltaSync.Delta<Supplier> delta) {
+        if (pagedList != null || (!delta.overflow() && delta.changed().isEmpty() && delta.deletedIds().isEmpty())) {
+            return;
+        }
+        busyIndicator.track(DbExecutor.submit("inventory.loadSuppliers", conn -> itemSuppliers.findAll(conn), links -> {
+            supplierNames.clear();
+            putSupplierNames(links);
+            tableView.refresh();
+            suppliersPane.reload();
+        }, e -> System.out.println("Database Error on loading item suppliers: " + e.getMessage())));
+    }
+
+    private void applyRemoteChangesPaged(Collection<Item> changed, Set<Integer> deleted) {
+        boolean countChanged = false;
+        for (Item item : changed) {
+            if (!pagedList.replace(item) && item.getId() > pagedList.getMaxId()) {
+                pagedList.append(item);
+            }
+        }
+        for (int id : deleted) {
+            if (!pagedList.removeById(id) && id <= pagedList.getMaxId()) {
+                // Deleted from a page that is not loaded, so row positions are off from here on
+                countChanged = true;
+            }
+        }
+        if (countChanged) {
+            loadData();
+        }
+        // Without every row in memory the dashboard cannot apply deltas itself
+        metrics.resync();
+    }
+
+    private void patchSearchResults(Item item) {
+        for (int i = 0; i < searchResults.size(); i++) {
+            if (searchResults.get(i).getId() == item.getId() && !searchResults.get(i).equals(item)) {
+                searchResults.set(i, item);
+            }
+        }
+    }
+
+    private int indexOfItem(int id) {
+        if (itemList instanceof ItemStore store) {
+            return store.indexOfId(id);
+        }
+        for (int i = 0; i < itemList.size(); i++) {
+            if (itemList.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // id is the item being edited, 0 for a new one
+    private boolean validateInput(int id) {
+        String error = ItemValidator.validateItem(nameInput.getText(), quantityInput.getText(), priceInput.getText());
+        if (error == null) {
+            error = ItemValidator.validateSku(skuInput.getText());
+        }
+        if (error != null) {
+            showAlert(error.equals(ItemValidator.NOT_A_NUMBER) ? "Invalid Input" : "Validation Error", error);
+            return false;
+        }
+        Integer owner = skuIndex.lookup(skuInput.getText());
+        if (owner != null && owner != id) {
+            showAlert("SKU In Use", "SKU " + SkuIndex.normalize(skuInput.getText())
+                    + " already belongs to item #" + owner + ".");
             return false;
         }
         return true;
@@ -279,11 +1016,36 @@ public class InventoryView {
 
     private void clearFields() {
         nameInput.clear();
+        skuInput.clear();
         quantityInput.clear();
         priceInput.clear();
         updateButtonStates();
     }
 
+    private record LoadResult(int count, int maxId, List<Item> items, List<ItemSupplier> links) {
+    }
+
+    // current is the row as the database has it now, null if it was deleted
+    private record UpdateResult(boolean saved, Item current) {
+    }
+
+    private enum SearchMode {
+        FILTER("Filter loaded items"),
+        PREFIX("Name starts with"),
+        WORDS("Contains words");
+
+        private final String label;
+
+        SearchMode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle(title);
@@ -1,16 +1,32 @@
 package com.inventory;
 
+import java.util.Objects;
+
 public class Item {
     private int id;
     private String name;
     private int quantity;
     private double price;
+    // Bumped by the database on every update; 0 when not known
+    private int version;
+    // Barcode or stock-keeping unit; null when the item has none
+    private String sku;
 
     public Item(int id, String name, int quantity, double price) {
+        this(id, name, quantity, price, 0);
+    }
+
+    public Item(int id, String name, int quantity, double price, int version) {
+        this(id, name, quantity, price, version, null);
+    }
+
+    public Item(int id, String name, int quantity, double price, int version, String sku) {
         this.id = id;
         this.name = name;
         this.quantity = quantity;
         this.price = price;
+        this.version = version;
+        this.sku = sku;
     }
 
     // Getters and Setters
@@ -45,4 +61,40 @@ public class Item {
     public void setPrice(double price) {
         this.price = price;
     }
-}
\ No newline at end of file
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    // Compared by value so a row rebuilt from ItemStore still matches the item it came from
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Item)) {
+            return false;
+        }
+        Item other = (Item) o;
+        return id == other.id && quantity == other.quantity && version == other.version
+                && Double.compare(price, other.price) == 0 && Objects.equals(name, other.name)
+                && Objects.equals(sku, other.sku);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, quantity, price, version, sku);
+    }
+}
@@ -0,0 +1,147 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All SQL against the inventory table. Callers supply the connection, usually
+ * the one {@link DbExecutor#submit} borrowed for them, so several calls can
+ * share one connection or one transaction. Quantities read back are always
+ * current: the row's snapshot plus the {@link StockLedger} movements not yet
+ * folded into it.
+ */
+public interface ItemRepository {
+
+    int count(Connection conn) throws SQLException;
+
+    /** Highest id in the table, 0 when it is empty. */
+    int maxId(Connection conn) throws SQLException;
+
+    List<Item> findAll(Connection conn) throws SQLException;
+
+    /** Up to {@code limit} items with an id above {@code afterId}, in id order. */
+    List<Item> findPage(Connection conn, int afterId, int limit) throws SQLException;
+
+    /** Id of the row at {@code offset} in id order, or Integer.MAX_VALUE past the end. */
+    int idAtOffset(Connection conn, int offset) throws SQLException;
+
+    /**
+     * Builds the statement for a name search without running it, so the caller
+     * can cancel it while it executes. Returns null when the query has nothing
+     * to search for.
+     */
+    PreparedStatement prepareSearch(Connection conn, String query, ItemSearch.Mode mode, int limit)
+            throws SQLException;
+
+    /** Inserts a new item; {@code sku} may be null. */
+    Item insert(Connection conn, String name, String sku, int quantity, double price) throws SQLException;
+
+    default Item insert(Connection conn, String name, int quantity, double price) throws SQLException {
+        return insert(conn, name, null, quantity, price);
+    }
+
+    /**
+     * Inserts the items as one batch in the caller's transaction, without
+     * reading their ids back; ids and versions of {@code items} are ignored.
+     * Returns the rows written per item, or SUCCESS_NO_INFO when the driver
+     * rewrote the batch into multi-row inserts.
+     */
+    int[] insertAll(Connection conn, List<Item> items) throws SQLException;
+
+    /** The current row, or null if it no longer exists. */
+    Item findById(Connection conn, int id) throws SQLException;
+
+    /**
+     * Writes name, SKU and price only if the row still has {@code item.getVersion()},
+     * and bumps the version. Stock is never overwritten: a non-zero
+     * {@code quantityChange} is recorded as a correction in the stock ledger,
+     * so movements made meanwhile on other stations still count. Returns 0
+     * when the row was changed or deleted since the caller read it.
+     */
+    int update(Connection conn, Item item, int quantityChange) throws SQLException;
+
+    /**
+     * {@link #update} for many items in one transaction and one round trip.
+     * Returns the rows written per item, in order.
+     */
+    int[] updateAll(Connection conn, List<Item> items, int[] quantityChanges) throws SQLException;
+
+    /**
+     * Multiplies the price of every listed item by {@code factor}, rounded to
+     * cents, and bumps their versions. One statement per chunk of ids, all in
+     * one transaction. Returns the new price of every row changed, as the
+     * database rounded it.
+     */
+    Map<Integer, Double> scalePrices(Connection conn, List<Integer> ids, double factor) throws SQLException;
+
+    /**
+     * Sets the stock of every listed item to {@code quantity} by recording the
+     * difference as a correction in the stock ledger, set-based like
+     * {@link #scalePrices}. Returns the rows changed.
+     */
+    int setQuantities(Connection conn, List<Integer> ids, int quantity) throws SQLException;
+
+    /**
+     * Records a receipt or issue of {@code delta} in the stock ledger, so
+     * concurrent movements never overwrite each other. Returns the row after
+     * the change, or null if it is gone or would drop below zero.
+     */
+    Item adjustQuantity(Connection conn, int id, int delta) throws SQLException;
+
+    /** Deletes the row and leaves a tombstone for {@link #findDeletedSince}. */
+    int delete(Connection conn, int id) throws SQLException;
+
+    /** {@link #delete} for many ids in one transaction; returns the rows deleted per id. */
+    int[] deleteAll(Connection conn, List<Integer> ids) throws SQLException;
+
+    /** {@link #delete} for a whole selection, set-based like {@link #scalePrices}; returns the rows deleted. */
+    int deleteIn(Connection conn, List<Integer> ids) throws SQLException;
+
+    /**
+     * Rows inserted or updated after {@code since}, oldest first, followed by
+     * rows whose stock moved since then; at most {@code limit} in all.
+     */
+    List<Item> findChangedSince(Connection conn, Timestamp since, int limit) throws SQLException;
+
+    List<Integer> findDeletedSince(Connection conn, Timestamp since) throws SQLException;
+
+    /**
+     * Every item with its current quantity in id order, as columns id, name,
+     * sku, quantity and price. The statement is forward-only and streams its
+     * rows, so a caller can read a table of any size in constant memory.
+     */
+    PreparedStatement prepareExport(Connection conn) throws SQLException;
+
+    /** Every SKU in use, mapped to the id of its item. */
+    Map<String, Integer> findSkus(Connection conn) throws SQLException;
+
+    /**
+     * Totals over every item, how many are below {@code lowStockThreshold},
+     * and the first {@code lowStockLimit} of those in quantity then id order.
+     */
+    DashboardMetrics.Snapshot snapshot(Connection conn, int lowStockThreshold, int lowStockLimit)
+            throws SQLException;
+
+    /**
+     * Up to {@code limit} items below {@code threshold} in quantity then id
+     * order, starting after {@code after}, or from the lowest for null. Pages
+     * by keyset, so a later page costs no more than the first.
+     */
+    List<DashboardMetrics.LowStockItem> findLowStock(Connection conn, int threshold,
+            DashboardMetrics.LowStockItem after, int limit) throws SQLException;
+
+    static Item readItem(ResultSet rs) throws SQLException {
+        return new Item(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("quantity"),
+                rs.getDouble("price"),
+                rs.getInt("version"),
+                rs.getString("sku"));
+    }
+}
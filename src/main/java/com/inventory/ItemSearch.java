@@ -0,0 +1,99 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs item searches in the database so they stay fast on catalogs that are
+ * not held in memory. Prefix search uses the index on inventory.name, word
+ * search uses the FULLTEXT index on the same column where the backend has one.
+ */
+public class ItemSearch {
+
+    public enum Mode {
+        PREFIX, WORDS
+    }
+
+    private final ItemRepository repository;
+    private final AtomicReference<Statement> running = new AtomicReference<>();
+
+    public ItemSearch(ItemRepository repository) {
+        this.repository = repository;
+    }
+
+    public List<Item> search(Connection conn, String query, Mode mode, int limit) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        try (PreparedStatement pstmt = repository.prepareSearch(conn, query, mode, limit)) {
+            if (pstmt == null) {
+                return items;
+            }
+            running.set(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ItemRepository.readItem(rs));
+                }
+            }
+        } finally {
+            running.set(null);
+        }
+        return items;
+    }
+
+    /**
+     * Asks the server to abort the statement that is still executing, if any.
+     * Connector/J opens a side connection to do this, so it never runs on the
+     * calling thread.
+     */
+    public void cancelRunning() {
+        Statement statement = running.getAndSet(null);
+        if (statement != null) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // Statement already finished
+                }
+            });
+        }
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // "red bolt" -> "+red* +bolt*"
+    static String toBooleanQuery(String text) {
+        StringBuilder sb = new StringBuilder();
+        for (String term : searchTerms(text)) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append('+').append(term).append('*');
+        }
+        return sb.toString();
+    }
+
+    // Words of the query, split at characters that are operators in boolean mode as the FULLTEXT parser splits
+    // words there too: "cable-tie" is "cable" and "tie". A word starting with "-" asks for rows without it, and
+    // is left out rather than required.
+    static List<String> searchTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : text.trim().split("\\s+")) {
+            if (word.startsWith("-")) {
+                continue;
+            }
+            for (String term : word.split("[+\\-<>()~*\"@]+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+}
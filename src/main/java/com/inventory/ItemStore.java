@@ -0,0 +1,339 @@
+package com.inventory;
+
+import javafx.collections.ObservableListBase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Item list that stores its rows column by column in primitive arrays instead
+ * of one {@link Item} object per row. Names and SKUs live as UTF-8 in one
+ * shared byte pool. {@link #get} builds a short-lived Item view of a row on demand, so the
+ * heap holds a few arrays no matter how many rows are loaded.
+ * Prices are kept as whole cents. Code that looks at one field of many rows,
+ * like the inventory filter, reads it by row index through the column
+ * getters instead, and rows are found by id through a primitive hash map.
+ */
+public class ItemStore extends ObservableListBase<Item> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int size;
+    private int[] ids;
+    private int[] quantities;
+    private long[] priceCents;
+    private int[] versions;
+    private int[] nameStarts;
+    private int[] nameLengths;
+    private int[] skuStarts;
+    // -1 for an item without a SKU
+    private int[] skuLengths;
+    private byte[] namePool;
+    private int poolSize;
+    // Bytes in the pool no row points at any more, reclaimed by compactPoolIfWasteful
+    private int poolGarbage;
+    private IntIntHashMap rowsById;
+    // The last row get built; a table asks for the same row once per cell
+    private int cachedIndex = -1;
+    private Item cachedItem;
+
+    public ItemStore() {
+        allocate(MIN_CAPACITY);
+    }
+
+    @Override
+    public Item get(int index) {
+        Objects.checkIndex(index, size);
+        if (index != cachedIndex) {
+            cachedItem = new Item(ids[index], getName(index), quantities[index], priceCents[index] / 100.0,
+                    versions[index], getSku(index));
+            cachedIndex = index;
+        }
+        return cachedItem;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getId(int index) {
+        Objects.checkIndex(index, size);
+        return ids[index];
+    }
+
+    public String getName(int index) {
+        Objects.checkIndex(index, size);
+        return text(namePool, nameStarts[index], nameLengths[index]);
+    }
+
+    public String getSku(int index) {
+        Objects.checkIndex(index, size);
+        return text(namePool, skuStarts[index], skuLengths[index]);
+    }
+
+    public int getQuantity(int index) {
+        Objects.checkIndex(index, size);
+        return quantities[index];
+    }
+
+    public long getPriceCents(int index) {
+        Objects.checkIndex(index, size);
+        return priceCents[index];
+    }
+
+    public int getVersion(int index) {
+        Objects.checkIndex(index, size);
+        return versions[index];
+    }
+
+    public int indexOfId(int id) {
+        return rowsById.get(id, -1);
+    }
+
+    @Override
+    public void add(int index, Item item) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        int moved = size - index;
+        System.arraycopy(ids, index, ids, index + 1, moved);
+        System.arraycopy(quantities, index, quantities, index + 1, moved);
+        System.arraycopy(priceCents, index, priceCents, index + 1, moved);
+        System.arraycopy(versions, index, versions, index + 1, moved);
+        System.arraycopy(nameStarts, index, nameStarts, index + 1, moved);
+        System.arraycopy(nameLengths, index, nameLengths, index + 1, moved);
+        System.arraycopy(skuStarts, index, skuStarts, index + 1, moved);
+        System.arraycopy(skuLengths, index, skuLengths, index + 1, moved);
+        size++;
+        cachedIndex = -1;
+        reindex(index + 1);
+        write(index, item);
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public Item set(int index, Item item) {
+        Item old = get(index);
+        poolGarbage += pooledBytes(index);
+        rowsById.remove(ids[index]);
+        write(index, item);
+        compactPoolIfWasteful();
+        beginChange();
+        nextSet(index, old);
+        endChange();
+        return old;
+    }
+
+    @Override
+    public Item remove(int index) {
+        Item old = get(index);
+        poolGarbage += pooledBytes(index);
+        rowsById.remove(ids[index]);
+        int moved = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(quantities, index + 1, quantities, index, moved);
+        System.arraycopy(priceCents, index + 1, priceCents, index, moved);
+        System.arraycopy(versions, index + 1, versions, index, moved);
+        System.arraycopy(nameStarts, index + 1, nameStarts, index, moved);
+        System.arraycopy(nameLengths, index + 1, nameLengths, index, moved);
+        System.arraycopy(skuStarts, index + 1, skuStarts, index, moved);
+        System.arraycopy(skuLengths, index + 1, skuLengths, index, moved);
+        size--;
+        cachedIndex = -1;
+        reindex(index);
+        compactPoolIfWasteful();
+        beginChange();
+        nextRemove(index, old);
+        endChange();
+        return old;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Item> items) {
+        if (items.isEmpty()) {
+            return false;
+        }
+        int from = size;
+        ensureCapacity(size + items.size());
+        for (Item item : items) {
+            write(size++, item);
+        }
+        beginChange();
+        nextAdd(from, size);
+        endChange();
+        return true;
+    }
+
+    @Override
+    public boolean setAll(Collection<? extends Item> items) {
+        // The old columns become a read-only view for the change event instead of being copied into objects
+        List<Item> removed = detach();
+        allocate(Math.max(MIN_CAPACITY, items.size()));
+        for (Item item : items) {
+            write(size++, item);
+        }
+        // A full load is usually followed by few edits, so drop the pool's spare room
+        namePool = Arrays.copyOf(namePool, Math.max(poolSize, MIN_CAPACITY));
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        List<Item> removed = detach();
+        allocate(MIN_CAPACITY);
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+
+    /** Approximate bytes held by the columns, the name pool and the id lookup. */
+    public long getMemoryFootprint() {
+        long perRow = Integer.BYTES * 7L + Long.BYTES;
+        return perRow * ids.length + namePool.length + rowsById.getMemoryFootprint();
+    }
+
+    private static String text(byte[] pool, int start, int length) {
+        return length < 0 ? null : new String(pool, start, length, StandardCharsets.UTF_8);
+    }
+
+    private int pooledBytes(int index) {
+        return nameLengths[index] + Math.max(skuLengths[index], 0);
+    }
+
+    // Rows from here on moved, so their ids point at the wrong index
+    private void reindex(int from) {
+        for (int i = from; i < size; i++) {
+            rowsById.put(ids[i], i);
+        }
+    }
+
+    private void write(int index, Item item) {
+        if (index == cachedIndex) {
+            cachedIndex = -1;
+        }
+        ids[index] = item.getId();
+        rowsById.put(item.getId(), index);
+        quantities[index] = item.getQuantity();
+        priceCents[index] = Math.round(item.getPrice() * 100);
+        versions[index] = item.getVersion();
+        byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+        nameStarts[index] = appendToPool(name);
+        nameLengths[index] = name.length;
+        if (item.getSku() == null) {
+            skuStarts[index] = 0;
+            skuLengths[index] = -1;
+        } else {
+            byte[] sku = item.getSku().getBytes(StandardCharsets.UTF_8);
+            skuStarts[index] = appendToPool(sku);
+            skuLengths[index] = sku.length;
+        }
+    }
+
+    private int appendToPool(byte[] bytes) {
+        if (poolSize + bytes.length > namePool.length) {
+            namePool = Arrays.copyOf(namePool, Math.max(namePool.length * 2, poolSize + bytes.length));
+        }
+        int start = poolSize;
+        System.arraycopy(bytes, 0, namePool, start, bytes.length);
+        poolSize += bytes.length;
+        return start;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        quantities = Arrays.copyOf(quantities, newCapacity);
+        priceCents = Arrays.copyOf(priceCents, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+        nameStarts = Arrays.copyOf(nameStarts, newCapacity);
+        nameLengths = Arrays.copyOf(nameLengths, newCapacity);
+        skuStarts = Arrays.copyOf(skuStarts, newCapacity);
+        skuLengths = Arrays.copyOf(skuLengths, newCapacity);
+    }
+
+    private void allocate(int capacity) {
+        size = 0;
+        ids = new int[capacity];
+        quantities = new int[capacity];
+        priceCents = new long[capacity];
+        versions = new int[capacity];
+        nameStarts = new int[capacity];
+        nameLengths = new int[capacity];
+        skuStarts = new int[capacity];
+        skuLengths = new int[capacity];
+        // Most item names are short ASCII, so assume about 24 bytes each
+        namePool = new byte[capacity * 24];
+        poolSize = 0;
+        poolGarbage = 0;
+        rowsById = new IntIntHashMap(capacity);
+        cachedIndex = -1;
+    }
+
+    private void compactPoolIfWasteful() {
+        if (poolGarbage < 1 << 20 || poolGarbage < poolSize / 2) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(poolSize - poolGarbage, MIN_CAPACITY)];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(namePool, nameStarts[i], compacted, position, nameLengths[i]);
+            nameStarts[i] = position;
+            position += nameLengths[i];
+            if (skuLengths[i] > 0) {
+                System.arraycopy(namePool, skuStarts[i], compacted, position, skuLengths[i]);
+                skuStarts[i] = position;
+                position += skuLengths[i];
+            }
+        }
+        namePool = compacted;
+        poolSize = position;
+        poolGarbage = 0;
+    }
+
+    private List<Item> detach() {
+        int rows = size;
+        int[] oldIds = ids;
+        int[] oldQuantities = quantities;
+        long[] oldPrices = priceCents;
+        int[] oldVersions = versions;
+        int[] oldStarts = nameStarts;
+        int[] oldLengths = nameLengths;
+        int[] oldSkuStarts = skuStarts;
+        int[] oldSkuLengths = skuLengths;
+        byte[] oldPool = namePool;
+        return new AbstractList<>() {
+            @Override
+            public Item get(int index) {
+                Objects.checkIndex(index, rows);
+                return new Item(oldIds[index], text(oldPool, oldStarts[index], oldLengths[index]),
+                        oldQuantities[index], oldPrices[index] / 100.0, oldVersions[index],
+                        text(oldPool, oldSkuStarts[index], oldSkuLengths[index]));
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.inventory;
+
+/** One supplier of one item, with the names of both sides for display. */
+public record ItemSupplier(int itemId, String itemName, int supplierId, String supplierName, double cost,
+        int leadTimeDays) {
+}
@@ -0,0 +1,131 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Which suppliers carry which items, at what cost and lead time. Every read
+ * is one join, or one per chunk of ids, however many items it covers, so a
+ * list of items never costs a query per row. Plain SQL that MySQL and H2 in
+ * MySQL mode both accept.
+ */
+public class ItemSupplierRepository {
+
+    private static final String SELECT_LINK = "SELECT l.item_id, i.name AS item_name, l.supplier_id,"
+            + " s.name AS supplier_name, l.cost, l.lead_time_days FROM item_suppliers l"
+            + " JOIN inventory i ON i.id = l.item_id JOIN suppliers s ON s.id = l.supplier_id";
+
+    /** Every link, ordered by item and then supplier name. */
+    public List<ItemSupplier> findAll(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_LINK + " ORDER BY l.item_id, s.name")) {
+            return readLinks(pstmt);
+        }
+    }
+
+    /** Links of the listed items, one query per chunk of ids, ordered by item and then supplier name. */
+    public List<ItemSupplier> findForItems(Connection conn, List<Integer> itemIds) throws SQLException {
+        List<ItemSupplier> links = new ArrayList<>();
+        for (List<Integer> chunk : InList.chunks(itemIds)) {
+            String sql = SELECT_LINK + " WHERE l.item_id IN " + InList.placeholders(chunk.size())
+                    + " ORDER BY l.item_id, s.name";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                InList.bind(pstmt, 1, chunk);
+                links.addAll(readLinks(pstmt));
+            }
+        }
+        return links;
+    }
+
+    public List<ItemSupplier> findForItem(Connection conn, int itemId) throws SQLException {
+        return findForItems(conn, List.of(itemId));
+    }
+
+    /** The items a supplier carries, by name; a range scan on idx_item_suppliers_supplier. */
+    public List<ItemSupplier> findForSupplier(Connection conn, int supplierId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_LINK + " WHERE l.supplier_id = ?"
+                + " ORDER BY i.name")) {
+            pstmt.setInt(1, supplierId);
+            return readLinks(pstmt);
+        }
+    }
+
+    /** Adds the link, or updates its cost and lead time if it exists. */
+    public void link(Connection conn, int itemId, int supplierId, double cost, int leadTimeDays)
+            throws SQLException {
+        String sql = "INSERT INTO item_suppliers(item_id, supplier_id, cost, lead_time_days) VALUES(?,?,?,?)"
+                + " ON DUPLICATE KEY UPDATE cost = ?, lead_time_days = ?";
+        inTransaction(conn, itemId, () -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, itemId);
+                pstmt.setInt(2, supplierId);
+                pstmt.setDouble(3, cost);
+                pstmt.setInt(4, leadTimeDays);
+                pstmt.setDouble(5, cost);
+                pstmt.setInt(6, leadTimeDays);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    public int unlink(Connection conn, int itemId, int supplierId) throws SQLException {
+        return inTransaction(conn, itemId, () -> {
+            String sql = "DELETE FROM item_suppliers WHERE item_id = ? AND supplier_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, itemId);
+                pstmt.setInt(2, supplierId);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        int run() throws SQLException;
+    }
+
+    // Touches the item as well, so delta sync tells other stations to reload its links.
+    // The version stays, as an open edit of the item's own fields does not conflict with this.
+    private static int inTransaction(Connection conn, int itemId, Write write) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int rows = write.run();
+            String sql = "UPDATE inventory SET updated_at = CURRENT_TIMESTAMP(3) WHERE id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, itemId);
+                pstmt.executeUpdate();
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+            return rows;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static List<ItemSupplier> readLinks(PreparedStatement pstmt) throws SQLException {
+        List<ItemSupplier> links = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                links.add(new ItemSupplier(
+                        rs.getInt("item_id"),
+                        rs.getString("item_name"),
+                        rs.getInt("supplier_id"),
+                        rs.getString("supplier_name"),
+                        rs.getDouble("cost"),
+                        rs.getInt("lead_time_days")));
+            }
+        }
+        return links;
+    }
+}
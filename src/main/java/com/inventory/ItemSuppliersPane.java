@@ -0,0 +1,185 @@
+package com.inventory;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The suppliers section of the inventory details pane: who carries the
+ * selected item, at what cost and lead time, and controls to add or remove
+ * a supplier. Reports every list it shows to {@code onLoaded}, so the table
+ * can keep its supplier column current without a query of its own.
+ */
+public class ItemSuppliersPane {
+
+    private final ListView<ItemSupplier> linkList = new ListView<>();
+    private final ComboBox<Supplier> supplierBox = new ComboBox<>();
+    private final TextField costInput = new TextField();
+    private final TextField leadTimeInput = new TextField();
+    private final Button addButton = new Button("Add");
+    private final Button removeButton = new Button("Remove");
+
+    private final BusyIndicator busyIndicator;
+    private final SupplierCache supplierCache;
+    private final BiConsumer<Integer, List<ItemSupplier>> onLoaded;
+    private final ItemSupplierRepository links = Database.itemSuppliers();
+    private Task<List<ItemSupplier>> loadTask;
+    private Item item;
+
+    public ItemSuppliersPane(BusyIndicator busyIndicator, SupplierCache supplierCache,
+            BiConsumer<Integer, List<ItemSupplier>> onLoaded) {
+        this.busyIndicator = busyIndicator;
+        this.supplierCache = supplierCache;
+        this.onLoaded = onLoaded;
+    }
+
+    public VBox getView() {
+        linkList.setPrefHeight(110);
+        linkList.setPlaceholder(new Label("No suppliers"));
+        linkList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ItemSupplier link, boolean empty) {
+                super.updateItem(link, empty);
+                setText(empty || link == null ? null : String.format("%s  cost %.2f, %d days",
+                        link.supplierName(), link.cost(), link.leadTimeDays()));
+            }
+        });
+
+        supplierBox.setPromptText("Supplier");
+        supplierBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Supplier supplier) {
+                return supplier == null ? "" : supplier.getName();
+            }
+
+            @Override
+            public Supplier fromString(String name) {
+                return null;
+            }
+        });
+        // Read when opened, so suppliers added since are offered; the cache usually has them
+        supplierBox.setOnShowing(e -> busyIndicator.track(DbExecutor.submit("suppliers.pick", supplierCache::findAll,
+                suppliers -> supplierBox.getItems().setAll(suppliers),
+                ex -> System.out.println("Database Error on loading suppliers: " + ex.getMessage()))));
+        costInput.setPromptText("Cost");
+        costInput.setPrefColumnCount(5);
+        leadTimeInput.setPromptText("Days");
+        leadTimeInput.setPrefColumnCount(3);
+
+        addButton.setOnAction(e -> handleAdd());
+        removeButton.setOnAction(e -> handleRemove());
+        linkList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> updateButtons());
+
+        HBox addBox = new HBox(10);
+        addBox.setAlignment(Pos.CENTER_LEFT);
+        addBox.getChildren().addAll(supplierBox, costInput, leadTimeInput, addButton, removeButton);
+
+        VBox box = new VBox(10);
+        box.getChildren().addAll(new Label("Suppliers"), linkList, addBox);
+        show(null);
+        return box;
+    }
+
+    /** Shows the suppliers of {@code item}, or nothing when it is null. */
+    public void show(Item item) {
+        boolean same = item != null && this.item != null && item.getId() == this.item.getId();
+        this.item = item;
+        if (same) {
+            // Only the item's own fields changed
+            return;
+        }
+        if (loadTask != null) {
+            loadTask.cancel();
+            loadTask = null;
+        }
+        linkList.getItems().clear();
+        updateButtons();
+        if (item != null) {
+            load(item.getId());
+        }
+    }
+
+    /** Reads the links of the item on display again. */
+    public void reload() {
+        if (item != null) {
+            load(item.getId());
+        }
+    }
+
+    /** Links read elsewhere for {@code itemId}, shown if that is the item on display. */
+    public void update(int itemId, List<ItemSupplier> loaded) {
+        if (item != null && item.getId() == itemId) {
+            linkList.getItems().setAll(loaded);
+        }
+    }
+
+    private void load(int itemId) {
+        loadTask = busyIndicator.track(DbExecutor.submit("itemSuppliers.load",
+                conn -> links.findForItem(conn, itemId), loaded -> {
+            update(itemId, loaded);
+            onLoaded.accept(itemId, loaded);
+        }, e -> System.out.println("Database Error on loading item suppliers: " + e.getMessage())));
+    }
+
+    private void handleAdd() {
+        Supplier supplier = supplierBox.getValue();
+        String error = ItemValidator.validateItemSupplier(supplier != null, costInput.getText(),
+                leadTimeInput.getText());
+        if (error != null) {
+            showAlert(error);
+            return;
+        }
+        int itemId = item.getId();
+        double cost = Double.parseDouble(costInput.getText().trim());
+        int leadTime = Integer.parseInt(leadTimeInput.getText().trim());
+        busyIndicator.track(DbExecutor.submit("itemSuppliers.link", conn -> {
+            links.link(conn, itemId, supplier.getId(), cost, leadTime);
+            return null;
+        }, ignored -> {
+            costInput.clear();
+            leadTimeInput.clear();
+            supplierBox.setValue(null);
+            load(itemId);
+        }, e -> {
+            System.out.println("Database Error on adding item supplier: " + e.getMessage());
+            // Most likely the item or supplier was deleted on another station
+            showAlert("The supplier could not be added: " + e.getMessage());
+        }));
+    }
+
+    private void handleRemove() {
+        ItemSupplier link = linkList.getSelectionModel().getSelectedItem();
+        if (link == null) {
+            return;
+        }
+        busyIndicator.track(DbExecutor.submit("itemSuppliers.unlink",
+                conn -> links.unlink(conn, link.itemId(), link.supplierId()),
+                rows -> load(link.itemId()),
+                e -> System.out.println("Database Error on removing item supplier: " + e.getMessage())));
+    }
+
+    private void updateButtons() {
+        addButton.setDisable(item == null);
+        removeButton.setDisable(item == null || linkList.getSelectionModel().getSelectedItem() == null);
+    }
+
+    private void showAlert(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Suppliers");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,86 @@
+package com.inventory;
+
+// Input rules shared by the edit forms and the CSV importer
+public final class ItemValidator {
+
+    public static final String EMPTY_NAME = "Name field cannot be empty.";
+    public static final String NAME_TOO_LONG = "Name cannot be longer than 255 characters.";
+    public static final String NOT_A_NUMBER = "Please enter a valid number for quantity and price.";
+    public static final String NEGATIVE = "Quantity and price cannot be negative.";
+    public static final String INVALID_SKU = "SKU must be at most 64 characters without spaces.";
+    public static final String EMPTY_SUPPLIER_NAME = "Supplier name cannot be empty.";
+    public static final String NO_SUPPLIER = "Please choose a supplier.";
+    public static final String INVALID_SUPPLY_TERMS =
+            "Please enter a cost and a lead time in whole days, neither negative.";
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_SKU_LENGTH = 64;
+
+    private ItemValidator() {
+    }
+
+    /** Returns the first problem with the given item fields, or null if they are valid. */
+    public static String validateItem(String name, String quantityText, String priceText) {
+        if (name == null || name.isEmpty()) {
+            return EMPTY_NAME;
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            return NAME_TOO_LONG;
+        }
+        try {
+            int quantity = Integer.parseInt(quantityText);
+            double price = Double.parseDouble(priceText);
+            // parseDouble also takes "NaN", "Infinity" and overflows such as "1e400"
+            if (!Double.isFinite(price)) {
+                return NOT_A_NUMBER;
+            }
+            if (quantity < 0 || price < 0) {
+                return NEGATIVE;
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            return NOT_A_NUMBER;
+        }
+        return null;
+    }
+
+    /** An empty SKU is valid and means the item has none. */
+    public static String validateSku(String sku) {
+        if (sku == null) {
+            return null;
+        }
+        String trimmed = sku.trim();
+        if (trimmed.length() > MAX_SKU_LENGTH || trimmed.chars().anyMatch(Character::isWhitespace)) {
+            return INVALID_SKU;
+        }
+        return null;
+    }
+
+    public static String validateSupplier(String name, String contact, String email, String phone) {
+        if (name == null || name.trim().isEmpty()) {
+            return EMPTY_SUPPLIER_NAME;
+        }
+        for (String value : new String[] { name, contact, email, phone }) {
+            if (value != null && value.length() > MAX_TEXT_LENGTH) {
+                return "Supplier fields cannot be longer than " + MAX_TEXT_LENGTH + " characters.";
+            }
+        }
+        return null;
+    }
+
+    /** Returns the problem with a new supplier link for an item, or null if it is valid. */
+    public static String validateItemSupplier(boolean supplierChosen, String costText, String leadTimeText) {
+        if (!supplierChosen) {
+            return NO_SUPPLIER;
+        }
+        try {
+            double cost = Double.parseDouble(costText.trim());
+            int leadTime = Integer.parseInt(leadTimeText.trim());
+            if (!Double.isFinite(cost) || cost < 0 || leadTime < 0) {
+                return INVALID_SUPPLY_TERMS;
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            return INVALID_SUPPLY_TERMS;
+        }
+        return null;
+    }
+}
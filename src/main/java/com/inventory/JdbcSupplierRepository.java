@@ -0,0 +1,157 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Plain SQL that MySQL and H2 in MySQL mode both accept, so one class serves both backends
+public class JdbcSupplierRepository implements SupplierRepository {
+
+    @Override
+    public List<Supplier> findAll(Connection conn) throws SQLException {
+        List<Supplier> suppliers = new ArrayList<>();
+        String sql = "SELECT id, name, contact_person, email, phone FROM suppliers";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                suppliers.add(readSupplier(rs));
+            }
+        }
+        return suppliers;
+    }
+
+    @Override
+    public Supplier findById(Connection conn, int id) throws SQLException {
+        String sql = "SELECT id, name, contact_person, email, phone FROM suppliers WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readSupplier(rs) : null;
+            }
+        }
+    }
+
+    @Override
+    public Supplier findByName(Connection conn, String name) throws SQLException {
+        // Names compare case-insensitively under both backends' collation
+        String sql = "SELECT id, name, contact_person, email, phone FROM suppliers WHERE name = ? ORDER BY id LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name.trim());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readSupplier(rs) : null;
+            }
+        }
+    }
+
+    private static Supplier readSupplier(ResultSet rs) throws SQLException {
+        return new Supplier(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("contact_person"),
+                rs.getString("email"),
+                rs.getString("phone"));
+    }
+
+    @Override
+    public Supplier insert(Connection conn, String name, String contact, String email, String phone)
+            throws SQLException {
+        String sql = "INSERT INTO suppliers(name, contact_person, email, phone) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, contact);
+            pstmt.setString(3, email);
+            pstmt.setString(4, phone);
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Insert did not return a generated id.");
+                }
+                return new Supplier(keys.getInt(1), name, contact, email, phone);
+            }
+        }
+    }
+
+    @Override
+    public int[] insertAll(Connection conn, List<Supplier> suppliers) throws SQLException {
+        String sql = "INSERT INTO suppliers(name, contact_person, email, phone) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Supplier supplier : suppliers) {
+                pstmt.setString(1, supplier.getName());
+                pstmt.setString(2, supplier.getContactPerson());
+                pstmt.setString(3, supplier.getEmail());
+                pstmt.setString(4, supplier.getPhone());
+                pstmt.addBatch();
+            }
+            return pstmt.executeBatch();
+        }
+    }
+
+    @Override
+    public int update(Connection conn, Supplier supplier) throws SQLException {
+        return updateAll(conn, List.of(supplier))[0];
+    }
+
+    @Override
+    public int[] updateAll(Connection conn, List<Supplier> suppliers) throws SQLException {
+        String sql = "UPDATE suppliers SET name = ?, contact_person = ?, email = ?, phone = ?,"
+                + " version = version + 1 WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Supplier supplier : suppliers) {
+                pstmt.setString(1, supplier.getName());
+                pstmt.setString(2, supplier.getContactPerson());
+                pstmt.setString(3, supplier.getEmail());
+                pstmt.setString(4, supplier.getPhone());
+                pstmt.setInt(5, supplier.getId());
+                pstmt.addBatch();
+            }
+            return pstmt.executeBatch();
+        }
+    }
+
+    @Override
+    public int delete(Connection conn, int id) throws SQLException {
+        return Tombstones.deleteRow(conn, "suppliers", id);
+    }
+
+    @Override
+    public int[] deleteAll(Connection conn, List<Integer> ids) throws SQLException {
+        return Tombstones.deleteRows(conn, "suppliers", ids);
+    }
+
+    @Override
+    public PreparedStatement prepareExport(Connection conn) throws SQLException {
+        String sql = "SELECT id, name, contact_person, email, phone FROM suppliers ORDER BY id";
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(Database.streamingFetchSize(conn));
+        return pstmt;
+    }
+
+    @Override
+    public List<Supplier> findChangedSince(Connection conn, Timestamp since, int limit) throws SQLException {
+        List<Supplier> suppliers = new ArrayList<>();
+        String sql = "SELECT id, name, contact_person, email, phone FROM suppliers"
+                + " WHERE updated_at > ? ORDER BY updated_at LIMIT ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, since);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    suppliers.add(readSupplier(rs));
+                }
+            }
+        }
+        return suppliers;
+    }
+
+    @Override
+    public List<Integer> findDeletedSince(Connection conn, Timestamp since) throws SQLException {
+        return Tombstones.findSince(conn, "suppliers", since);
+    }
+}
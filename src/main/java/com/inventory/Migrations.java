@@ -0,0 +1,142 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Brings a database up to the latest of an ordered list of migrations,
+ * recording each applied version in {@code schema_migrations}. For a
+ * database that is already current only that version is read. Each
+ * migration runs in its own transaction together with its record. Both
+ * MySQL and H2 commit DDL statements implicitly, though, so steps are
+ * written to be idempotent (see {@link Schema}) and a migration that
+ * failed halfway simply runs again on the next start.
+ */
+final class Migrations {
+
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, Step step) {
+    }
+
+    private static final String LOCK_NAME = "inventory_db.schema_migrations";
+    // Long enough for another station to build an index on a large table
+    private static final int LOCK_TIMEOUT_SEC = 3_600;
+
+    private Migrations() {
+    }
+
+    /** The highest version recorded, or 0 for a database that was never migrated. */
+    static int currentVersion(Connection conn) throws SQLException {
+        if (!Schema.hasTable(conn, "schema_migrations")) {
+            return 0;
+        }
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Applies the migrations above the current version in order and returns
+     * how many went through. The first one that fails is rolled back as far
+     * as the backend allows, left unrecorded and rethrown, so the app does
+     * not start on a half-migrated schema. On MySQL the run holds a named
+     * lock, so stations starting at the same time migrate one after another.
+     */
+    static int migrate(Connection conn, List<Migration> migrations) throws SQLException {
+        if (migrations.isEmpty() || currentVersion(conn) >= latest(migrations)) {
+            return 0;
+        }
+        boolean locked = Schema.isMySql(conn) && lock(conn);
+        try {
+            // Another station may have finished while this one waited for the lock
+            int current = currentVersion(conn);
+            createSchema(conn);
+            int applied = 0;
+            for (Migration migration : migrations) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                apply(conn, migration);
+                applied++;
+            }
+            return applied;
+        } finally {
+            if (locked) {
+                unlock(conn);
+            }
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        try {
+            conn.setAutoCommit(false);
+            migration.step().apply(conn);
+            record(conn, migration, System.currentTimeMillis() - start);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration to version " + migration.version() + " (" + migration.description()
+                    + ") failed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int latest(List<Migration> migrations) {
+        return migrations.get(migrations.size() - 1).version();
+    }
+
+    private static boolean lock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SEC);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another station to finish migrating the schema");
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void unlock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        }
+    }
+
+    private static void createSchema(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_migrations (\n"
+                + " version INT PRIMARY KEY,\n"
+                + " description VARCHAR(255) NOT NULL,\n"
+                + " applied_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),\n"
+                + " duration_ms BIGINT NOT NULL\n"
+                + ");";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static void record(Connection conn, Migration migration, long durationMs) throws SQLException {
+        // Another station starting at the same time may have recorded it first
+        String sql = "INSERT INTO schema_migrations(version, description, duration_ms) VALUES(?,?,?)"
+                + " ON DUPLICATE KEY UPDATE version = version";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version());
+            pstmt.setString(2, migration.description());
+            pstmt.setLong(3, durationMs);
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MySqlItemRepository implements ItemRepository {
+
+    // Quantity is the snapshot in the row plus the stock movements not yet folded into it
+    protected static final String SELECT_ITEM = "SELECT i.id, i.name, i.sku, " + StockLedger.CURRENT_QUANTITY
+            + " AS quantity, i.price, i.version FROM inventory i";
+    // Reads every row, so the grouped join sums the ledger tail once instead of once per row
+    private static final String SCAN_ITEMS = "SELECT i.id, i.name, i.sku, " + StockLedger.JOINED_QUANTITY
+            + " AS quantity, i.price, i.version FROM inventory i" + StockLedger.PENDING_JOIN;
+    // Items whose current quantity is below a threshold: a range scan on idx_inventory_quantity_price for the
+    // snapshots already below it, plus the items the ledger tail may have moved below it
+    private static final String LOW_STOCK = "SELECT c.id, c.name, c.quantity FROM ("
+            + "SELECT i.id, i.name, " + StockLedger.CURRENT_QUANTITY + " AS quantity FROM inventory i"
+            + " WHERE i.quantity < ?"
+            + " UNION SELECT i.id, i.name, " + StockLedger.CURRENT_QUANTITY + " AS quantity FROM inventory i"
+            + " WHERE i.id IN (SELECT item_id FROM stock_movements WHERE folded_by IS NULL)) c WHERE c.quantity < ?";
+
+    @Override
+    public int count(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM inventory");
+                ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public int maxId(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM inventory");
+                ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public List<Item> findAll(Connection conn) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SCAN_ITEMS);
+                ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                items.add(ItemRepository.readItem(rs));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> findPage(Connection conn, int afterId, int limit) throws SQLException {
+        List<Item> rows = new ArrayList<>(limit);
+        String sql = SELECT_ITEM + " WHERE i.id > ? ORDER BY i.id LIMIT ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(ItemRepository.readItem(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Walks the primary key index, not the rows
+    @Override
+    public int idAtOffset(Connection conn, int offset) throws SQLException {
+        String sql = "SELECT id FROM inventory ORDER BY id LIMIT 1 OFFSET ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareSearch(Connection conn, String query, ItemSearch.Mode mode, int limit)
+            throws SQLException {
+        if (mode == ItemSearch.Mode.PREFIX) {
+            String sql = SELECT_ITEM + " WHERE i.name LIKE ? ORDER BY i.name LIMIT ?";
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, ItemSearch.escapeLike(query.trim()) + "%");
+            pstmt.setInt(2, limit);
+            return pstmt;
+        }
+        return prepareWordSearch(conn, query, limit);
+    }
+
+    protected PreparedStatement prepareWordSearch(Connection conn, String query, int limit) throws SQLException {
+        String booleanQuery = ItemSearch.toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return null;
+        }
+        String sql = SELECT_ITEM + " WHERE MATCH(i.name) AGAINST(? IN BOOLEAN MODE) LIMIT ?";
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        pstmt.setString(1, booleanQuery);
+        pstmt.setInt(2, limit);
+        return pstmt;
+    }
+
+    @Override
+    public Item insert(Connection conn, String name, String sku, int quantity, double price) throws SQLException {
+        String sql = "INSERT INTO inventory(name, sku, quantity, price) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, sku);
+            pstmt.setInt(3, quantity);
+            pstmt.setDouble(4, price);
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Insert did not return a generated id.");
+                }
+                // New rows start at the column default version
+                return new Item(keys.getInt(1), name, quantity, price, 1, sku);
+            }
+        }
+    }
+
+    @Override
+    public int[] insertAll(Connection conn, List<Item> items) throws SQLException {
+        String sql = "INSERT INTO inventory(name, sku, quantity, price) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Item item : items) {
+                pstmt.setString(1, item.getName());
+                pstmt.setString(2, item.getSku());
+                pstmt.setInt(3, item.getQuantity());
+                pstmt.setDouble(4, item.getPrice());
+                pstmt.addBatch();
+            }
+            return pstmt.executeBatch();
+        }
+    }
+
+    @Override
+    public Item findById(Connection conn, int id) throws SQLException {
+        String sql = SELECT_ITEM + " WHERE i.id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? ItemRepository.readItem(rs) : null;
+            }
+        }
+    }
+
+    @Override
+    public int update(Connection conn, Item item, int quantityChange) throws SQLException {
+        return updateAll(conn, List.of(item), new int[] { quantityChange })[0];
+    }
+
+    @Override
+    public int[] updateAll(Connection conn, List<Item> items, int[] quantityChanges) throws SQLException {
+        String sql = "UPDATE inventory SET name = ?, sku = ?, price = ?, version = version + 1"
+                + " WHERE id = ? AND version = ?";
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int[] rows;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Item item : items) {
+                    pstmt.setString(1, item.getName());
+                    pstmt.setString(2, item.getSku());
+                    pstmt.setDouble(3, item.getPrice());
+                    pstmt.setInt(4, item.getId());
+                    pstmt.setInt(5, item.getVersion());
+                    pstmt.addBatch();
+                }
+                rows = pstmt.executeBatch();
+            }
+            // Only edits that passed the version check move stock
+            Map<Integer, Integer> corrections = new LinkedHashMap<>();
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] > 0 && quantityChanges[i] != 0) {
+                    corrections.merge(items.get(i).getId(), quantityChanges[i], Integer::sum);
+                }
+            }
+            StockLedger.appendAll(conn, corrections, StockLedger.Reason.CORRECTION);
+            if (autoCommit) {
+                conn.commit();
+            }
+            return rows;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> scalePrices(Connection conn, List<Integer> ids, double factor) throws SQLException {
+        Map<Integer, Double> prices = new HashMap<>();
+        InList.inChunks(conn, ids, chunk -> {
+            String in = InList.placeholders(chunk.size());
+            int rows;
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE inventory SET price = ROUND(price * ?, 2), version = version + 1 WHERE id IN " + in)) {
+                pstmt.setDouble(1, factor);
+                InList.bind(pstmt, 2, chunk);
+                rows = pstmt.executeUpdate();
+            }
+            // Same transaction, so this reads the prices just written
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT id, price FROM inventory WHERE id IN " + in)) {
+                InList.bind(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        prices.put(rs.getInt(1), rs.getDouble(2));
+                    }
+                }
+            }
+            return rows;
+        });
+        return prices;
+    }
+
+    @Override
+    public int setQuantities(Connection conn, List<Integer> ids, int quantity) throws SQLException {
+        return InList.inChunks(conn, ids, chunk -> {
+            String in = InList.placeholders(chunk.size());
+            int rows;
+            // Locks the rows first, so the corrections below are measured against a tail that holds still
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE inventory SET version = version + 1 WHERE id IN " + in)) {
+                InList.bind(pstmt, 1, chunk);
+                rows = pstmt.executeUpdate();
+            }
+            String sql = "INSERT INTO stock_movements(item_id, delta, reason) SELECT i.id, ? - ("
+                    + StockLedger.CURRENT_QUANTITY + "), ? FROM inventory i"
+                    + " WHERE i.id IN " + in + " AND " + StockLedger.CURRENT_QUANTITY + " <> ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, quantity);
+                pstmt.setString(2, StockLedger.Reason.CORRECTION.name());
+                int index = InList.bind(pstmt, 3, chunk);
+                pstmt.setInt(index, quantity);
+                pstmt.executeUpdate();
+            }
+            return rows;
+        });
+    }
+
+    @Override
+    public Item adjustQuantity(Connection conn, int id, int delta) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            if (delta < 0) {
+                // Issues on one item queue up here so two of them cannot both pass the stock check.
+                // Receipts cannot fail it and skip the lock.
+                String lockSql = "SELECT id FROM inventory WHERE id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(lockSql)) {
+                    pstmt.setInt(1, id);
+                    pstmt.executeQuery().close();
+                }
+            }
+            Item item = findById(conn, id);
+            if (item != null && item.getQuantity() + delta >= 0) {
+                StockLedger.append(conn, id, delta, delta < 0 ? StockLedger.Reason.ISSUE : StockLedger.Reason.RECEIVE);
+                // Same transaction, so this reads our own movement
+                item = findById(conn, id);
+            } else {
+                item = null;
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+            return item;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    @Override
+    public int delete(Connection conn, int id) throws SQLException {
+        return Tombstones.deleteRow(conn, "inventory", id);
+    }
+
+    @Override
+    public int[] deleteAll(Connection conn, List<Integer> ids) throws SQLException {
+        return Tombstones.deleteRows(conn, "inventory", ids);
+    }
+
+    @Override
+    public int deleteIn(Connection conn, List<Integer> ids) throws SQLException {
+        return Tombstones.deleteIn(conn, "inventory", ids);
+    }
+
+    // Range scans on idx_inventory_updated_at and idx_stock_movements_moved_at
+    @Override
+    public List<Item> findChangedSince(Connection conn, Timestamp since, int limit) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        String sql = SELECT_ITEM + " WHERE i.updated_at > ? ORDER BY i.updated_at LIMIT ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, since);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ItemRepository.readItem(rs));
+                }
+            }
+        }
+
+        // Stock movements change the current quantity without touching the row
+        Set<Integer> moved = StockLedger.findItemsMovedSince(conn, since);
+        items.forEach(item -> moved.remove(item.getId()));
+        List<Integer> ids = moved.stream().limit(Math.max(0, limit - items.size())).toList();
+        // One query per chunk of moved items, however busy the ledger was
+        for (List<Integer> chunk : InList.chunks(ids)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    SELECT_ITEM + " WHERE i.id IN " + InList.placeholders(chunk.size()))) {
+                InList.bind(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(ItemRepository.readItem(rs));
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public List<Integer> findDeletedSince(Connection conn, Timestamp since) throws SQLException {
+        return Tombstones.findSince(conn, "inventory", since);
+    }
+
+    @Override
+    public PreparedStatement prepareExport(Connection conn) throws SQLException {
+        String sql = "SELECT i.id, i.name, i.sku, " + StockLedger.JOINED_QUANTITY + " AS quantity, i.price"
+                + " FROM inventory i" + StockLedger.PENDING_JOIN + " ORDER BY i.id";
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(Database.streamingFetchSize(conn));
+        return pstmt;
+    }
+
+    @Override
+    public Map<String, Integer> findSkus(Connection conn) throws SQLException {
+        Map<String, Integer> skus = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT sku, id FROM inventory WHERE sku IS NOT NULL");
+                ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                skus.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return skus;
+    }
+
+    @Override
+    public DashboardMetrics.Snapshot snapshot(Connection conn, int lowStockThreshold, int lowStockLimit)
+            throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(" + StockLedger.JOINED_QUANTITY + "), 0),"
+                + " COALESCE(SUM((" + StockLedger.JOINED_QUANTITY + ") * i.price), 0) FROM inventory i"
+                + StockLedger.PENDING_JOIN;
+        int totalItems;
+        long totalStock;
+        double totalValue;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            totalItems = rs.getInt(1);
+            totalStock = rs.getLong(2);
+            totalValue = rs.getDouble(3);
+        }
+
+        int lowStockCount;
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM (" + LOW_STOCK + ") l")) {
+            bindLowStock(pstmt, lowStockThreshold);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                lowStockCount = rs.getInt(1);
+            }
+        }
+        return new DashboardMetrics.Snapshot(totalItems, totalStock, totalValue, lowStockCount,
+                findLowStock(conn, lowStockThreshold, null, lowStockLimit));
+    }
+
+    @Override
+    public List<DashboardMetrics.LowStockItem> findLowStock(Connection conn, int threshold,
+            DashboardMetrics.LowStockItem after, int limit) throws SQLException {
+        String sql = LOW_STOCK + " AND (c.quantity > ? OR c.quantity = ? AND c.id > ?)"
+                + " ORDER BY c.quantity, c.id LIMIT ?";
+        List<DashboardMetrics.LowStockItem> page = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = bindLowStock(pstmt, threshold);
+            int quantity = after != null ? after.quantity() : Integer.MIN_VALUE;
+            pstmt.setInt(index++, quantity);
+            pstmt.setInt(index++, quantity);
+            pstmt.setInt(index++, after != null ? after.id() : Integer.MIN_VALUE);
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new DashboardMetrics.LowStockItem(rs.getInt("id"), rs.getString("name"),
+                            rs.getInt("quantity")));
+                }
+            }
+        }
+        return page;
+    }
+
+    private static int bindLowStock(PreparedStatement pstmt, int threshold) throws SQLException {
+        pstmt.setInt(1, threshold);
+        pstmt.setInt(2, threshold);
+        return 3;
+    }
+}
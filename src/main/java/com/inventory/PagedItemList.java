@@ -0,0 +1,191 @@
+package com.inventory;
+
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-through view of the inventory table for catalogs too large to hold in
+ * memory. Pages are fetched by id keyset as the table asks for rows, the next
+ * page is prefetched, and only the most recently used pages are kept.
+ * Rows that are not loaded yet read as null until their page arrives.
+ */
+public class PagedItemList extends ObservableListBase<Item> {
+
+    private final int pageSize;
+    private final int maxPages;
+    private int size;
+
+    private final LinkedHashMap<Integer, List<Item>> pages;
+    // Last id of every page seen so far; kept after eviction so the page after it can still seek by keyset
+    private final Map<Integer, Integer> lastIds = new HashMap<>();
+    private final Map<Integer, Task<List<Item>>> loading = new HashMap<>();
+
+    private final ItemRepository repository;
+    // Highest id that belongs to this list, loaded or not
+    private int maxId;
+
+    public PagedItemList(ItemRepository repository, int size, int maxId, int pageSize, int maxPages) {
+        this.repository = repository;
+        this.size = size;
+        this.maxId = maxId;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Item>> eldest) {
+                return size() > PagedItemList.this.maxPages;
+            }
+        };
+    }
+
+    @Override
+    public Item get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        List<Item> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        if (offset >= pageSize / 2) {
+            requestPage(page + 1);
+        }
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+
+    /** Adds a freshly inserted item; auto-increment ids always sort last. */
+    public void append(Item item) {
+        maxId = Math.max(maxId, item.getId());
+        int index = size++;
+        int page = index / pageSize;
+        List<Item> rows = pages.get(page);
+        if (rows != null && rows.size() == index % pageSize) {
+            rows.add(item);
+            lastIds.put(page, item.getId());
+        }
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    public boolean replace(Item item) {
+        for (Map.Entry<Integer, List<Item>> entry : pages.entrySet()) {
+            List<Item> rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == item.getId()) {
+                    if (rows.get(i).equals(item)) {
+                        return true;
+                    }
+                    Item old = rows.set(i, item);
+                    beginChange();
+                    nextSet(entry.getKey() * pageSize + i, old);
+                    endChange();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean removeById(int id) {
+        for (Map.Entry<Integer, List<Item>> entry : pages.entrySet()) {
+            List<Item> rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == id) {
+                    int page = entry.getKey();
+                    Item removed = rows.get(i);
+                    size--;
+                    // Every later row shifts up by one, so pages from here on no longer line up
+                    invalidateFrom(page);
+                    beginChange();
+                    nextRemove(page * pageSize + i, removed);
+                    endChange();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void dispose() {
+        loading.values().forEach(Task::cancel);
+        loading.clear();
+    }
+
+    private void invalidateFrom(int firstPage) {
+        pages.keySet().removeIf(p -> p >= firstPage);
+        lastIds.keySet().removeIf(p -> p >= firstPage);
+        Iterator<Map.Entry<Integer, Task<List<Item>>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Task<List<Item>>> entry = it.next();
+            if (entry.getKey() >= firstPage) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+    }
+
+    private void requestPage(int page) {
+        if ((long) page * pageSize >= size || pages.containsKey(page) || loading.containsKey(page)) {
+            return;
+        }
+
+        // Drop loads for pages the user has already scrolled far away from
+        Iterator<Map.Entry<Integer, Task<List<Item>>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Task<List<Item>>> entry = it.next();
+            if (Math.abs(entry.getKey() - page) > 2) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+
+        Integer afterId = page == 0 ? Integer.valueOf(0) : lastIds.get(page - 1);
+        int seekOffset = page * pageSize - 1;
+
+        Task<List<Item>> task = DbExecutor.submit("inventory.page", conn -> {
+            // Only probes by offset when jumping straight into the middle
+            int startAfter = afterId != null ? afterId : repository.idAtOffset(conn, seekOffset);
+            return repository.findPage(conn, startAfter, pageSize);
+        }, rows -> onPageLoaded(page, rows), e -> {
+            loading.remove(page);
+            System.out.println("Database Error on loading inventory page " + page + ": " + e.getMessage());
+        });
+        loading.put(page, task);
+    }
+
+    private void onPageLoaded(int page, List<Item> rows) {
+        loading.remove(page);
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            lastIds.put(page, rows.get(rows.size() - 1).getId());
+        }
+
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from < to) {
+            beginChange();
+            nextReplace(from, to, new ArrayList<>(Collections.nCopies(to - from, (Item) null)));
+            endChange();
+        }
+    }
+}
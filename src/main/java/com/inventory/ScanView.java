@@ -0,0 +1,141 @@
+package com.inventory;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Receiving by barcode. A keyboard-wedge scanner types the code and presses
+ * Enter; each scan is resolved through the {@link SkuIndex} and added to a
+ * running total per item. Every {@code scan.flushMs} the totals go to the
+ * stock ledger in one transaction, so a burst of scans of the same box costs
+ * one movement row instead of one per scan.
+ */
+public class ScanView {
+
+    private static final int LOG_SIZE = 200;
+
+    private final TextField scanInput = new TextField();
+    private final Spinner<Integer> unitsSpinner = new Spinner<>(1, 10_000, 1);
+    private final Label statusLabel = new Label();
+    private final ObservableList<String> log = FXCollections.observableArrayList();
+
+    private final SkuIndex skuIndex;
+    private final StockLedger ledger;
+    private final Timeline flushTimer;
+    // Units scanned per item id since the last flush, in scan order
+    private final Map<Integer, Integer> pending = new LinkedHashMap<>();
+
+    private long scans;
+    private long unknownScans;
+    private long writtenUnits;
+
+    public ScanView(SkuIndex skuIndex, StockLedger ledger) {
+        this.skuIndex = skuIndex;
+        this.ledger = ledger;
+        this.flushTimer = new Timeline(new KeyFrame(
+                Duration.millis(AppConfig.getLong("scan.flushMs", 250)), e -> flush()));
+        flushTimer.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public VBox getView() {
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(10));
+        root.getStyleClass().add("root");
+
+        scanInput.setPromptText("Scan a barcode or type a SKU and press Enter");
+        HBox.setHgrow(scanInput, Priority.ALWAYS);
+        unitsSpinner.setEditable(true);
+        unitsSpinner.setPrefWidth(100);
+        HBox scanBox = new HBox(10);
+        scanBox.setAlignment(Pos.CENTER_LEFT);
+        scanBox.getChildren().addAll(new Label("Receive:"), scanInput, new Label("Units per scan"), unitsSpinner);
+
+        ListView<String> logView = new ListView<>(log);
+        logView.setPlaceholder(new Label("Scanned items appear here"));
+        logView.setFocusTraversable(false);
+        VBox.setVgrow(logView, Priority.ALWAYS);
+
+        scanInput.setOnAction(e -> handleScan());
+        // The scanner types into whatever has focus, so keep it here
+        root.setOnMouseClicked(e -> scanInput.requestFocus());
+
+        root.getChildren().addAll(scanBox, statusLabel, logView);
+        updateStatus();
+        flushTimer.play();
+        return root;
+    }
+
+    /** Writes what is still waiting and stops flushing; call before the ledger stops. */
+    public void stop() {
+        flushTimer.stop();
+        flush();
+    }
+
+    private void handleScan() {
+        String sku = SkuIndex.normalize(scanInput.getText());
+        scanInput.clear();
+        if (sku == null) {
+            return;
+        }
+        scans++;
+        Integer id = skuIndex.lookup(sku);
+        if (id == null) {
+            unknownScans++;
+            addToLog(skuIndex.isLoaded() ? "Unknown SKU " + sku : "SKU list is still loading, " + sku + " ignored");
+        } else {
+            int units = unitsSpinner.getValue();
+            pending.merge(id, units, Integer::sum);
+            addToLog(sku + "  item #" + id + "  +" + units);
+        }
+        updateStatus();
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> flushed = new LinkedHashMap<>(pending);
+        pending.clear();
+        int units = flushed.values().stream().mapToInt(Integer::intValue).sum();
+        ledger.recordAll(flushed, StockLedger.Reason.RECEIVE).whenComplete((ignored, e) -> Platform.runLater(() -> {
+            if (e == null) {
+                writtenUnits += units;
+            } else {
+                System.out.println(e.getMessage());
+                addToLog("Could not record the last " + units + " units scanned, scan them again");
+            }
+            updateStatus();
+        }));
+        updateStatus();
+    }
+
+    private void addToLog(String line) {
+        log.add(0, line);
+        if (log.size() > LOG_SIZE) {
+            log.remove(LOG_SIZE, log.size());
+        }
+    }
+
+    private void updateStatus() {
+        int waiting = pending.values().stream().mapToInt(Integer::intValue).sum();
+        statusLabel.setText(String.format("%d scans, %d unknown, %d units waiting, %d units recorded",
+                scans, unknownScans, waiting, writtenUnits));
+    }
+}
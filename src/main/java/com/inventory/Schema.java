@@ -0,0 +1,101 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Idempotent DDL steps that look the schema up through JDBC metadata, so they work on every backend
+final class Schema {
+
+    private Schema() {
+    }
+
+    static void ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    static boolean hasTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(conn.getCatalog(), null, table, null)) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Adds a plain index on {@code columns}. MySQL builds it in place while
+     * the table stays readable and writable; H2 has no online DDL and locks
+     * the table until the index is built.
+     */
+    static void ensureIndexOnline(Connection conn, String table, String index, String columns) throws SQLException {
+        addIndex(conn, table, index, columns, "INDEX", "NONE");
+    }
+
+    /** Like {@link #ensureIndexOnline}, for an index that rejects duplicate keys. */
+    static void ensureUniqueIndexOnline(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        addIndex(conn, table, index, columns, "UNIQUE INDEX", "NONE");
+    }
+
+    /**
+     * Adds a MySQL FULLTEXT index. InnoDB builds it in place but cannot take
+     * writes meanwhile, so the table stays readable only. Other backends have
+     * no FULLTEXT index, and get none.
+     */
+    static void ensureFulltextIndex(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        if (isMySql(conn)) {
+            addIndex(conn, table, index, columns, "FULLTEXT INDEX", "SHARED");
+        }
+    }
+
+    private static void addIndex(Connection conn, String table, String index, String columns, String kind,
+            String lock) throws SQLException {
+        if (hasIndex(conn, table, index)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(isMySql(conn)
+                    ? "ALTER TABLE " + table + " ADD " + kind + " " + index + " (" + columns + "),"
+                            + " ALGORITHM=INPLACE, LOCK=" + lock
+                    : "CREATE " + kind + " " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    /** Drops an index if it is there, without blocking writes on MySQL. */
+    static void dropIndexOnline(Connection conn, String table, String index) throws SQLException {
+        if (!hasIndex(conn, table, index)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(isMySql(conn)
+                    ? "ALTER TABLE " + table + " DROP INDEX " + index + ", ALGORITHM=INPLACE, LOCK=NONE"
+                    : "DROP INDEX " + index);
+        }
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().startsWith("MySQL");
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SKU to item id map held in memory, so a scan is resolved with one hash
+ * lookup instead of a query. Loaded once on start and kept current by delta
+ * sync and local saves. Used from the FX thread only.
+ */
+public class SkuIndex {
+
+    private final Map<String, Integer> idsBySku = new HashMap<>();
+    private final Map<Integer, String> skusById = new HashMap<>();
+    private boolean loaded;
+
+    public SkuIndex(DeltaSync sync) {
+        sync.onItems(this::applyRemoteChanges);
+    }
+
+    /** Trimmed and upper-cased, as the database compares SKUs without regard to case; null if blank. */
+    public static String normalize(String sku) {
+        if (sku == null || sku.isBlank()) {
+            return null;
+        }
+        return sku.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public void load() {
+        DbExecutor.submit("sku.load", conn -> Database.items().findSkus(conn), skus -> {
+            idsBySku.clear();
+            skusById.clear();
+            skus.forEach((sku, id) -> put(id, sku));
+            loaded = true;
+        }, e -> System.out.println("Database Error on loading SKUs: " + e.getMessage()));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Id of the item with this SKU, or null if there is none. */
+    public Integer lookup(String sku) {
+        String key = normalize(sku);
+        return key == null ? null : idsBySku.get(key);
+    }
+
+    /** Records the item's current SKU, which may be null. */
+    public void put(int id, String sku) {
+        remove(id);
+        String key = normalize(sku);
+        if (key == null) {
+            return;
+        }
+        // The SKU may have moved here from another item
+        Integer previous = idsBySku.put(key, id);
+        if (previous != null) {
+            skusById.remove(previous);
+        }
+        skusById.put(id, key);
+    }
+
+    public void remove(int id) {
+        String sku = skusById.remove(id);
+        if (sku != null) {
+            idsBySku.remove(sku);
+        }
+    }
+
+    public int size() {
+        return idsBySku.size();
+    }
+
+    private void applyRemoteChanges(DeltaSync.Delta<Item> delta) {
+        if (delta.overflow()) {
+            load();
+            return;
+        }
+        delta.changed().forEach(item -> put(item.getId(), item.getSku()));
+        delta.deletedIds().forEach(this::remove);
+    }
+}
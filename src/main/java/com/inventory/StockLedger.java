@@ -0,0 +1,311 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only record of every stock change. {@code inventory.quantity} is a
+ * snapshot; the current quantity is that snapshot plus the movements not yet
+ * folded into it, so recording a movement never waits on the item row.
+ * Movements passed to {@link #record} are written in batches by one
+ * background thread, which also runs the compactor that folds old movements
+ * into the snapshots. Folded movements stay in the table, so the stock level
+ * at any earlier time can still be worked out.
+ */
+public class StockLedger {
+
+    public enum Reason {
+        RECEIVE, ISSUE, CORRECTION
+    }
+
+    /**
+     * Current quantity of inventory row {@code i}: its snapshot plus the movements not yet folded into it,
+     * looked up per row on idx_stock_movements_pending, so reads of a few items cost a few index probes.
+     */
+    static final String CURRENT_QUANTITY = "i.quantity + COALESCE((SELECT SUM(m.delta) FROM stock_movements m"
+            + " WHERE m.item_id = i.id AND m.folded_by IS NULL), 0)";
+    /** Only for scans of the whole table: joins every row {@code i} to its unfolded total, as {@code t.pending}. */
+    static final String PENDING_JOIN = " LEFT JOIN (SELECT item_id, SUM(delta) AS pending FROM stock_movements"
+            + " WHERE folded_by IS NULL GROUP BY item_id) t ON t.item_id = i.id";
+    static final String JOINED_QUANTITY = "i.quantity + COALESCE(t.pending, 0)";
+
+    private record Movement(int itemId, int delta, Reason reason) {
+    }
+
+    // Movements that must land in the same transaction
+    private record Entry(List<Movement> movements, CompletableFuture<Void> written) {
+    }
+
+    private final ConnectionSource connections;
+    private final int batchSize;
+    private final long compactIntervalMs;
+    private final int compactBatch;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public StockLedger(ConnectionSource connections, int batchSize, long compactIntervalMs, int compactBatch) {
+        this.connections = connections;
+        this.batchSize = batchSize;
+        this.compactIntervalMs = compactIntervalMs;
+        this.compactBatch = compactBatch;
+    }
+
+    public StockLedger() {
+        this(Database::getConnection,
+                AppConfig.getInt("ledger.batchSize", 500),
+                AppConfig.getLong("ledger.compactIntervalMs", 5_000),
+                AppConfig.getInt("ledger.compactBatch", 10_000));
+    }
+
+    public void start() {
+        running = true;
+        writer = Thread.ofVirtual().name("stock-ledger").start(this::run);
+    }
+
+    /** Writes whatever is still queued and stops the writer. */
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a movement without a stock check and returns at once. The future
+     * completes when the batch holding it is committed.
+     */
+    public CompletableFuture<Void> record(int itemId, int delta, Reason reason) {
+        return enqueue(List.of(new Movement(itemId, delta, reason)));
+    }
+
+    /** Like {@link #record}, for a delta per item id that must all be written in one transaction. */
+    public CompletableFuture<Void> recordAll(Map<Integer, Integer> deltas, Reason reason) {
+        List<Movement> movements = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> movements.add(new Movement(id, delta, reason)));
+        return enqueue(movements);
+    }
+
+    private CompletableFuture<Void> enqueue(List<Movement> movements) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        if (!running) {
+            written.completeExceptionally(new IllegalStateException("Stock ledger is not running."));
+            return written;
+        }
+        queue.add(new Entry(movements, written));
+        return written;
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        long nextCompaction = System.currentTimeMillis() + compactIntervalMs;
+        while (running || !queue.isEmpty()) {
+            try {
+                long wait = Math.max(1, Math.min(nextCompaction - System.currentTimeMillis(), 200));
+                Entry entry = queue.poll(wait, TimeUnit.MILLISECONDS);
+                // Whatever piled up while the previous batch was written goes out together
+                int movements = 0;
+                while (entry != null) {
+                    batch.add(entry);
+                    movements += entry.movements().size();
+                    entry = movements < batchSize ? queue.poll() : null;
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() >= nextCompaction) {
+                    compact();
+                    nextCompaction = System.currentTimeMillis() + compactIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (SQLException e) {
+                System.out.println("Database Error on compacting stock movements: " + e.getMessage());
+                nextCompaction = System.currentTimeMillis() + compactIntervalMs;
+            } catch (RuntimeException e) {
+                // A bug in one batch must not stop the writer, or every later record() would wait forever
+                System.out.println("Error in stock ledger writer: " + e);
+                batch.forEach(entry -> entry.written().completeExceptionally(e));
+                batch.clear();
+                nextCompaction = System.currentTimeMillis() + compactIntervalMs;
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        String sql = "INSERT INTO stock_movements(item_id, delta, reason) VALUES(?,?,?)";
+        Diagnostics.Timer timer = Diagnostics.start("ledger.write");
+        try (Connection conn = connections.get()) {
+            timer.acquired();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Entry entry : batch) {
+                    for (Movement movement : entry.movements()) {
+                        pstmt.setInt(1, movement.itemId());
+                        pstmt.setInt(2, movement.delta());
+                        pstmt.setString(3, movement.reason().name());
+                        pstmt.addBatch();
+                    }
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            timer.failed(e);
+            System.out.println("Database Error on recording stock movements: " + e.getMessage());
+            batch.forEach(entry -> entry.written().completeExceptionally(e));
+            return;
+        }
+        timer.succeeded(null);
+        batch.forEach(entry -> entry.written().complete(null));
+    }
+
+    /** Folds up to {@code ledger.compactBatch} of the oldest unfolded movements into their items. */
+    public int compact() throws SQLException {
+        Diagnostics.Timer timer = Diagnostics.start("ledger.compact");
+        try (Connection conn = connections.get()) {
+            timer.acquired();
+            int folded = compact(conn, compactBatch);
+            timer.succeeded(null);
+            return folded;
+        } catch (SQLException e) {
+            timer.failed(e);
+            throw e;
+        }
+    }
+
+    static int compact(Connection conn, int maxMovements) throws SQLException {
+        long through;
+        String oldestSql = "SELECT MAX(id) FROM (SELECT id FROM stock_movements WHERE folded_by IS NULL"
+                + " ORDER BY id LIMIT ?) oldest";
+        try (PreparedStatement pstmt = conn.prepareStatement(oldestSql)) {
+            pstmt.setInt(1, maxMovements);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                through = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        if (through == 0) {
+            return 0;
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            // Claim the movements first and then sum exactly the claimed ones. A movement below the
+            // bound that commits in between stays unclaimed and is folded next time.
+            int claimed;
+            String claimSql = "UPDATE stock_movements SET folded_by = ? WHERE folded_by IS NULL AND id <= ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(claimSql)) {
+                pstmt.setLong(1, through);
+                pstmt.setLong(2, through);
+                claimed = pstmt.executeUpdate();
+            }
+
+            String sumSql = "SELECT item_id, SUM(delta) FROM stock_movements WHERE folded_by = ? GROUP BY item_id";
+            // Leaves version and updated_at alone: the current quantity does not change, only where it is kept
+            String foldSql = "UPDATE inventory SET quantity = quantity + ?, updated_at = updated_at WHERE id = ?";
+            try (PreparedStatement sum = conn.prepareStatement(sumSql);
+                    PreparedStatement fold = conn.prepareStatement(foldSql)) {
+                sum.setLong(1, through);
+                try (ResultSet rs = sum.executeQuery()) {
+                    while (rs.next()) {
+                        fold.setLong(1, rs.getLong(2));
+                        fold.setInt(2, rs.getInt(1));
+                        fold.addBatch();
+                    }
+                }
+                fold.executeBatch();
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+            return claimed;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** Records one movement on the caller's connection, inside the caller's transaction if there is one. */
+    static void append(Connection conn, int itemId, int delta, Reason reason) throws SQLException {
+        String sql = "INSERT INTO stock_movements(item_id, delta, reason) VALUES(?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, itemId);
+            pstmt.setInt(2, delta);
+            pstmt.setString(3, reason.name());
+            pstmt.executeUpdate();
+        }
+    }
+
+    /** Batched {@link #append} of one movement per item id. */
+    static void appendAll(Connection conn, Map<Integer, Integer> deltas, Reason reason) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO stock_movements(item_id, delta, reason) VALUES(?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                pstmt.setInt(1, delta.getKey());
+                pstmt.setInt(2, delta.getValue());
+                pstmt.setString(3, reason.name());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Stock of an item as it stood at {@code at}: today's quantity with every
+     * later movement taken back out. Null if the item no longer exists.
+     */
+    public static Integer quantityAt(Connection conn, int itemId, Timestamp at) throws SQLException {
+        String sql = "SELECT " + CURRENT_QUANTITY + " - COALESCE((SELECT SUM(m.delta) FROM stock_movements m"
+                + " WHERE m.item_id = i.id AND m.moved_at > ?), 0) FROM inventory i WHERE i.id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, at);
+            pstmt.setInt(2, itemId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    static Set<Integer> findItemsMovedSince(Connection conn, Timestamp since) throws SQLException {
+        Set<Integer> ids = new LinkedHashSet<>();
+        String sql = "SELECT DISTINCT item_id FROM stock_movements WHERE moved_at > ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -1,5 +1,7 @@
 package com.inventory;
 
+import java.util.Objects;
+
 public class Supplier {
     private int id;
     private String name;
@@ -55,4 +57,23 @@ public class Supplier {
     public void setPhone(String phone) {
         this.phone = phone;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Supplier)) {
+            return false;
+        }
+        Supplier other = (Supplier) o;
+        return id == other.id && Objects.equals(name, other.name)
+                && Objects.equals(contactPerson, other.contactPerson)
+                && Objects.equals(email, other.email) && Objects.equals(phone, other.phone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, contactPerson, email, phone);
+    }
 }
@@ -0,0 +1,254 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Suppliers held in memory, shared by every screen that lists or looks them
+ * up. Lookups by id or name and the full directory are answered from memory
+ * while younger than {@code supplierCache.ttlMs}; at most
+ * {@code supplierCache.maxSize} suppliers are kept, least recently used
+ * going first. Writes on this station replace or drop exactly the supplier
+ * they touched, and delta sync does the same for other stations' writes, so
+ * a change never forces the whole directory to be read again.
+ *
+ * <p>The lookup methods may run on any thread and query on a miss with the
+ * caller's connection.
+ */
+public class SupplierCache {
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry(Supplier supplier, long loadedAt) {
+    }
+
+    private final SupplierRepository suppliers;
+    private final int maxSize;
+    private final long ttlMs;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Entry> byId;
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    // The whole directory as of allLoadedAt, kept in step with byId; null when not cached
+    private List<Supplier> all;
+    private long allLoadedAt;
+    // Bumped by every write, so a read that started before one does not store what it read
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public SupplierCache(SupplierRepository suppliers, int maxSize, long ttlMs, LongSupplier clock) {
+        this.suppliers = suppliers;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() <= SupplierCache.this.maxSize) {
+                    return false;
+                }
+                evictions++;
+                unindexName(eldest.getValue().supplier());
+                // The directory is no longer complete
+                all = null;
+                return true;
+            }
+        };
+    }
+
+    /** Kept current by delta sync. */
+    public SupplierCache(DeltaSync sync) {
+        this(Database.suppliers(),
+                AppConfig.getInt("supplierCache.maxSize", 10_000),
+                AppConfig.getLong("supplierCache.ttlMs", 300_000),
+                System::currentTimeMillis);
+        sync.onSuppliers(this::applyRemoteChanges);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Every supplier, in id order. The list is read-only. */
+    public List<Supplier> findAll(Connection conn) throws SQLException {
+        long readGeneration;
+        synchronized (this) {
+            if (all != null && isFresh(allLoadedAt)) {
+                hits++;
+                return all;
+            }
+            if (all != null) {
+                expirations++;
+            }
+            misses++;
+            readGeneration = generation;
+        }
+        List<Supplier> loaded = List.copyOf(suppliers.findAll(conn));
+        synchronized (this) {
+            // A directory too large to hold is read every time
+            if (readGeneration == generation && loaded.size() <= maxSize) {
+                long now = clock.getAsLong();
+                byId.clear();
+                idsByName.clear();
+                loaded.forEach(supplier -> index(supplier, now));
+                all = loaded;
+                allLoadedAt = now;
+            }
+        }
+        return loaded;
+    }
+
+    /** The supplier with this id, or null if there is none. */
+    public Supplier findById(Connection conn, int id) throws SQLException {
+        long readGeneration;
+        synchronized (this) {
+            Entry entry = lookup(id);
+            if (entry != null) {
+                hits++;
+                return entry.supplier();
+            }
+            misses++;
+            readGeneration = generation;
+        }
+        Supplier loaded = suppliers.findById(conn, id);
+        store(loaded, readGeneration);
+        return loaded;
+    }
+
+    /** The supplier with this name, ignoring case, or null if there is none. */
+    public Supplier findByName(Connection conn, String name) throws SQLException {
+        long readGeneration;
+        synchronized (this) {
+            Integer id = idsByName.get(key(name));
+            Entry entry = id == null ? null : lookup(id);
+            if (entry != null) {
+                hits++;
+                return entry.supplier();
+            }
+            misses++;
+            readGeneration = generation;
+        }
+        Supplier loaded = suppliers.findByName(conn, name);
+        store(loaded, readGeneration);
+        return loaded;
+    }
+
+    /** Records a supplier this station just added or changed. */
+    public synchronized void put(Supplier supplier) {
+        generation++;
+        long now = clock.getAsLong();
+        Entry previous = byId.get(supplier.getId());
+        if (previous != null) {
+            unindexName(previous.supplier());
+        }
+        // May evict, which drops the directory
+        index(supplier, now);
+        if (all != null) {
+            List<Supplier> updated = new ArrayList<>(all.size() + 1);
+            boolean replaced = false;
+            for (Supplier current : all) {
+                if (current.getId() == supplier.getId()) {
+                    updated.add(supplier);
+                    replaced = true;
+                } else {
+                    updated.add(current);
+                }
+            }
+            if (!replaced) {
+                // New suppliers have the highest id, so the list stays in id order
+                updated.add(supplier);
+            }
+            all = List.copyOf(updated);
+        }
+    }
+
+    /** Drops a supplier that was deleted. */
+    public synchronized void remove(int id) {
+        generation++;
+        Entry previous = byId.remove(id);
+        if (previous != null) {
+            unindexName(previous.supplier());
+        }
+        if (all != null) {
+            all = all.stream().filter(supplier -> supplier.getId() != id).toList();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        byId.clear();
+        idsByName.clear();
+        all = null;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, byId.size());
+    }
+
+    private void applyRemoteChanges(DeltaSync.Delta<Supplier> delta) {
+        if (delta.overflow()) {
+            invalidateAll();
+            return;
+        }
+        delta.changed().forEach(this::put);
+        delta.deletedIds().forEach(this::remove);
+    }
+
+    private boolean isFresh(long loadedAt) {
+        return clock.getAsLong() - loadedAt < ttlMs;
+    }
+
+    // Caller holds the lock. Drops the entry if it has expired.
+    private Entry lookup(int id) {
+        Entry entry = byId.get(id);
+        if (entry == null || isFresh(entry.loadedAt())) {
+            return entry;
+        }
+        expirations++;
+        byId.remove(id);
+        unindexName(entry.supplier());
+        all = null;
+        return null;
+    }
+
+    private synchronized void store(Supplier supplier, long readGeneration) {
+        if (supplier != null && readGeneration == generation) {
+            Entry previous = byId.get(supplier.getId());
+            if (previous != null) {
+                unindexName(previous.supplier());
+            }
+            index(supplier, clock.getAsLong());
+        }
+    }
+
+    private void index(Supplier supplier, long loadedAt) {
+        byId.put(supplier.getId(), new Entry(supplier, loadedAt));
+        if (supplier.getName() != null) {
+            // The oldest supplier keeps a shared name, as in the database lookup
+            idsByName.merge(key(supplier.getName()), supplier.getId(), Math::min);
+        }
+    }
+
+    private void unindexName(Supplier supplier) {
+        if (supplier.getName() != null) {
+            idsByName.remove(key(supplier.getName()), supplier.getId());
+        }
+    }
+}
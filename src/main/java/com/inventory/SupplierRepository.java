@@ -0,0 +1,40 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+// All SQL against the suppliers table; see ItemRepository
+public interface SupplierRepository {
+
+    List<Supplier> findAll(Connection conn) throws SQLException;
+
+    /** The current row, or null if it no longer exists. */
+    Supplier findById(Connection conn, int id) throws SQLException;
+
+    /** The supplier with this name, ignoring case; the oldest one if several share it, null if none does. */
+    Supplier findByName(Connection conn, String name) throws SQLException;
+
+    Supplier insert(Connection conn, String name, String contact, String email, String phone) throws SQLException;
+
+    /** Batched {@link #insert} in the caller's transaction, without reading the ids back; see ItemRepository. */
+    int[] insertAll(Connection conn, List<Supplier> suppliers) throws SQLException;
+
+    int update(Connection conn, Supplier supplier) throws SQLException;
+
+    /** Batched {@link #update}; returns the rows written per supplier. */
+    int[] updateAll(Connection conn, List<Supplier> suppliers) throws SQLException;
+
+    int delete(Connection conn, int id) throws SQLException;
+
+    int[] deleteAll(Connection conn, List<Integer> ids) throws SQLException;
+
+    /** Every supplier in id order, as a streaming statement; see ItemRepository. */
+    PreparedStatement prepareExport(Connection conn) throws SQLException;
+
+    List<Supplier> findChangedSince(Connection conn, Timestamp since, int limit) throws SQLException;
+
+    List<Integer> findDeletedSince(Connection conn, Timestamp since) throws SQLException;
+}
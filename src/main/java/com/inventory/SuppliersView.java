@@ -1,7 +1,9 @@
 package com.inventory;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -10,10 +12,7 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.List;
 
 public class SuppliersView {
 
@@ -26,8 +25,27 @@ public class SuppliersView {
     private final Button newButton = new Button("Clear");
     private final Button saveButton = new Button("Save");
     private final Button deleteButton = new Button("Delete");
+    private final Button importButton = new Button("Import CSV...");
+    private final Button exportButton = new Button("Export...");
 
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+
+    private final ListView<ItemSupplier> itemsList = new ListView<>();
+    private Task<List<ItemSupplier>> itemsTask;
+
+    private final SupplierRepository suppliers = Database.suppliers();
     private final ObservableList<Supplier> supplierList = FXCollections.observableArrayList();
+    private Task<List<Supplier>> loadTask;
+    private boolean saving;
+
+    private final WriteBehind writeBehind;
+    private final SupplierCache supplierCache;
+
+    public SuppliersView(DeltaSync sync, WriteBehind writeBehind, SupplierCache supplierCache) {
+        this.writeBehind = writeBehind;
+        this.supplierCache = supplierCache;
+        sync.onSuppliers(this::applyRemoteChanges);
+    }
 
     public VBox getView() {
         VBox root = new VBox(10);
@@ -44,7 +62,11 @@ public class SuppliersView {
         splitPane.getItems().addAll(tableView, detailsPane);
         splitPane.setDividerPositions(0.6);
 
-        root.getChildren().add(splitPane);
+        HBox toolBar = new HBox(10);
+        toolBar.setAlignment(Pos.CENTER_RIGHT);
+        toolBar.getChildren().addAll(importButton, exportButton);
+
+        root.getChildren().addAll(toolBar, splitPane);
 
         loadData();
         setupSelectionListener();
@@ -103,9 +125,21 @@ public class SuppliersView {
 
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
-        buttonBox.getChildren().addAll(newButton, saveButton, deleteButton);
+        buttonBox.getChildren().addAll(newButton, saveButton, deleteButton, busyIndicator);
+
+        // Linked from the item side, in the inventory details pane
+        itemsList.setPrefHeight(150);
+        itemsList.setPlaceholder(new Label("No items linked"));
+        itemsList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ItemSupplier link, boolean empty) {
+                super.updateItem(link, empty);
+                setText(empty || link == null ? null : String.format("%s  cost %.2f, %d days",
+                        link.itemName(), link.cost(), link.leadTimeDays()));
+            }
+        });
 
-        detailsBox.getChildren().addAll(detailsTitle, grid, buttonBox);
+        detailsBox.getChildren().addAll(detailsTitle, grid, buttonBox, new Label("Items Supplied"), itemsList);
         return detailsBox;
     }
 
@@ -115,14 +149,38 @@ public class SuppliersView {
                     if (newSelection != null) {
                         populateSupplierDetails(newSelection);
                     }
+                    loadSuppliedItems(newSelection);
                     updateButtonStates();
                 });
     }
 
+    // One join however many items the supplier carries
+    private void loadSuppliedItems(Supplier supplier) {
+        if (itemsTask != null) {
+            itemsTask.cancel();
+            itemsTask = null;
+        }
+        itemsList.getItems().clear();
+        if (supplier == null) {
+            return;
+        }
+        itemsTask = busyIndicator.track(DbExecutor.submit("suppliers.itemsSupplied",
+                conn -> Database.itemSuppliers().findForSupplier(conn, supplier.getId()),
+                links -> itemsList.getItems().setAll(links),
+                e -> System.out.println("Database Error on loading supplied items: " + e.getMessage())));
+    }
+
     private void setupButtonListeners() {
         newButton.setOnAction(e -> handleNewSupplier());
         saveButton.setOnAction(e -> handleSaveSupplier());
         deleteButton.setOnAction(e -> handleDeleteSupplier());
+        importButton.setOnAction(e -> CsvImportDialog.show(tableView.getScene().getWindow(),
+                CsvImporter.Kind.SUPPLIERS, () -> {
+                    supplierCache.invalidateAll();
+                    loadData();
+                }));
+        exportButton.setOnAction(e -> ExportDialog.show(tableView.getScene().getWindow(),
+                DataExporter.Source.SUPPLIERS, busyIndicator));
 
         // Add listeners to text fields to update button states
         nameInput.textProperty().addListener((obs, oldVal, newVal) -> updateButtonStates());
@@ -139,29 +197,31 @@ public class SuppliersView {
         boolean isItemSelected = tableView.getSelectionModel().getSelectedItem() != null;
 
         newButton.setDisable(!hasText);
-        deleteButton.setDisable(!isItemSelected);
-        saveButton.setDisable(nameInput.getText().trim().isEmpty());
+        deleteButton.setDisable(!isItemSelected || saving);
+        saveButton.setDisable(nameInput.getText().trim().isEmpty() || saving);
+    }
+
+    private void setSaving(boolean saving) {
+        this.saving = saving;
+        updateButtonStates();
     }
 
     private void loadData() {
-        supplierList.clear();
-        String sql = "SELECT * FROM suppliers";
-
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                supplierList.add(new Supplier(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("contact_person"),
-                        rs.getString("email"),
-                        rs.getString("phone")));
-            }
-        } catch (SQLException e) {
-            System.out.println("Database Error on loading suppliers: " + e.getMessage());
+        if (loadTask != null) {
+            loadTask.cancel();
         }
+        tableView.setPlaceholder(new Label("Loading suppliers..."));
+
+        // Usually answered from memory; writes keep the cache current instead of forcing a reread
+        loadTask = busyIndicator.track(DbExecutor.submit("suppliers.load", supplierCache::findAll,
+                suppliers -> {
+                    supplierList.setAll(suppliers);
+                    tableView.setPlaceholder(new Label("No suppliers found"));
+                },
+                e -> {
+                    System.out.println("Database Error on loading suppliers: " + e.getMessage());
+                    tableView.setPlaceholder(new Label("Could not load suppliers"));
+                }));
     }
 
     private void populateSupplierDetails(Supplier supplier) {
@@ -190,62 +250,127 @@ public class SuppliersView {
         if (!validateInput())
             return;
 
-        String sql = "INSERT INTO suppliers(name, contact_person, email, phone) VALUES(?,?,?,?)";
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameInput.getText());
-            pstmt.setString(2, contactInput.getText());
-            pstmt.setString(3, emailInput.getText());
-            pstmt.setString(4, phoneInput.getText());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
+        String name = nameInput.getText();
+        String contact = contactInput.getText();
+        String email = emailInput.getText();
+        String phone = phoneInput.getText();
+
+        setSaving(true);
+        busyIndicator.track(DbExecutor.submit("suppliers.add",
+                conn -> suppliers.insert(conn, name, contact, email, phone), supplier -> {
+            setSaving(false);
+            supplierCache.put(supplier);
+            // Delta sync may have delivered the new row before this callback ran
+            if (indexOfSupplier(supplier.getId()) < 0) {
+                supplierList.add(supplier);
+            }
+            clearFields();
+        }, e -> {
+            setSaving(false);
             System.out.println("Database Error on adding supplier: " + e.getMessage());
-        }
-        loadData();
-        clearFields();
+            loadData();
+        }));
     }
 
     private void updateSupplier(Supplier supplier) {
         if (!validateInput())
             return;
 
-        String sql = "UPDATE suppliers SET name = ?, contact_person = ?, email = ?, phone = ? WHERE id = ?";
-        try (Connection conn = Database.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameInput.getText());
-            pstmt.setString(2, contactInput.getText());
-            pstmt.setString(3, emailInput.getText());
-            pstmt.setString(4, phoneInput.getText());
-            pstmt.setInt(5, supplier.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.out.println("Database Error on updating supplier: " + e.getMessage());
+        String name = nameInput.getText();
+        String contact = contactInput.getText();
+        String email = emailInput.getText();
+        String phone = phoneInput.getText();
+        Supplier updated = new Supplier(supplier.getId(), name, contact, email, phone);
+
+        int index = indexOfSupplier(updated.getId());
+        if (index < 0) {
+            loadData();
+            return;
         }
-        loadData();
+        // Shown at once; the write is queued and only reported back if it fails
+        supplierList.set(index, updated);
+        tableView.getSelectionModel().select(updated);
+        supplierCache.put(updated);
+        writeBehind.updateSupplier(updated).whenComplete((rows, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                System.out.println("Database Error on updating supplier: " + e.getMessage());
+                showAlert("Not Saved", "Your change to " + name + " could not be saved.");
+                supplierCache.invalidateAll();
+                loadData();
+            } else if (rows == 0) {
+                // Deleted on another station before the change was written
+                supplierCache.remove(updated.getId());
+                loadData();
+            }
+        }));
     }
 
     private void handleDeleteSupplier() {
         Supplier selectedSupplier = tableView.getSelectionModel().getSelectedItem();
         if (selectedSupplier != null) {
-            String sql = "DELETE FROM suppliers WHERE id = ?";
-            try (Connection conn = Database.getConnection();
-                    PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, selectedSupplier.getId());
-                pstmt.executeUpdate();
-            } catch (SQLException e) {
-                System.out.println("Database Error on deleting supplier: " + e.getMessage());
+            int id = selectedSupplier.getId();
+            int index = indexOfSupplier(id);
+            if (index >= 0) {
+                supplierList.remove(index);
             }
-            loadData();
             clearFields();
+            supplierCache.remove(id);
+            writeBehind.deleteSupplier(id).whenComplete((rows, e) -> {
+                if (e != null) {
+                    Platform.runLater(() -> {
+                        System.out.println("Database Error on deleting supplier: " + e.getMessage());
+                        showAlert("Not Deleted", selectedSupplier.getName() + " could not be deleted.");
+                        supplierCache.invalidateAll();
+                        loadData();
+                    });
+                }
+            });
         } else {
             showAlert("No Selection", "Please select a supplier in the table to delete.");
         }
     }
 
+    private void applyRemoteChanges(DeltaSync.Delta<Supplier> delta) {
+        if (delta.overflow()) {
+            loadData();
+            return;
+        }
+        for (int id : delta.deletedIds()) {
+            int index = indexOfSupplier(id);
+            if (index >= 0) {
+                supplierList.remove(index);
+            }
+        }
+        for (Supplier supplier : delta.changed()) {
+            // Local edits not yet written win over what the other station saved before them
+            if (delta.deletedIds().contains(supplier.getId()) || writeBehind.isSupplierPending(supplier.getId())) {
+                continue;
+            }
+            int index = indexOfSupplier(supplier.getId());
+            if (index >= 0) {
+                if (!supplierList.get(index).equals(supplier)) {
+                    supplierList.set(index, supplier);
+                }
+            } else {
+                supplierList.add(supplier);
+            }
+        }
+    }
+
+    private int indexOfSupplier(int id) {
+        for (int i = 0; i < supplierList.size(); i++) {
+            if (supplierList.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private boolean validateInput() {
-        String name = nameInput.getText();
-        if (name == null || name.trim().isEmpty()) {
-            showAlert("Validation Error", "Supplier name cannot be empty.");
+        String error = ItemValidator.validateSupplier(nameInput.getText(), contactInput.getText(),
+                emailInput.getText(), phoneInput.getText());
+        if (error != null) {
+            showAlert("Validation Error", error);
             return false;
         }
         return true;
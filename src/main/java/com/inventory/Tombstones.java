@@ -0,0 +1,109 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers deleted rows for a while so other workstations can drop them
+ * from their lists; a deleted row leaves nothing behind for an
+ * {@code updated_at} query to find.
+ */
+final class Tombstones {
+
+    private Tombstones() {
+    }
+
+    /** Deletes the row and records its tombstone in one transaction. */
+    static int deleteRow(Connection conn, String table, int id) throws SQLException {
+        return deleteRows(conn, table, List.of(id))[0];
+    }
+
+    /** Batched {@link #deleteRow}; returns the rows deleted per id. */
+    static int[] deleteRows(Connection conn, String table, List<Integer> ids) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int[] rows;
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + table + " WHERE id = ?")) {
+                for (int id : ids) {
+                    pstmt.setInt(1, id);
+                    pstmt.addBatch();
+                }
+                rows = pstmt.executeBatch();
+            }
+            String sql = "INSERT INTO deleted_rows(table_name, row_id) VALUES(?,?)"
+                    + " ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                boolean any = false;
+                for (int i = 0; i < rows.length; i++) {
+                    if (rows[i] > 0) {
+                        pstmt.setString(1, table);
+                        pstmt.setInt(2, ids.get(i));
+                        pstmt.addBatch();
+                        any = true;
+                    }
+                }
+                if (any) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+            return rows;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** Set-based {@link #deleteRows} for a large selection; returns the total rows deleted. */
+    static int deleteIn(Connection conn, String table, List<Integer> ids) throws SQLException {
+        return InList.inChunks(conn, ids, chunk -> {
+            String in = InList.placeholders(chunk.size());
+            // Tombstones for the rows that exist, written while they still do
+            String sql = "INSERT INTO deleted_rows(table_name, row_id) SELECT ?, id FROM " + table
+                    + " WHERE id IN " + in + " ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, table);
+                InList.bind(pstmt, 2, chunk);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + table + " WHERE id IN " + in)) {
+                InList.bind(pstmt, 1, chunk);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    static List<Integer> findSince(Connection conn, String table, Timestamp since) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        String sql = "SELECT row_id FROM deleted_rows WHERE table_name = ? AND deleted_at > ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setTimestamp(2, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    static int prune(Connection conn, Timestamp olderThan) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM deleted_rows WHERE deleted_at < ?")) {
+            pstmt.setTimestamp(1, olderThan);
+            return pstmt.executeUpdate();
+        }
+    }
+}
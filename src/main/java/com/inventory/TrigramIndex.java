@@ -0,0 +1,158 @@
+package com.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Substring index over item names. Every three-character window of a
+ * lower-cased name maps to the ids containing it, so a query only has to
+ * intersect the posting lists of its own trigrams instead of scanning every
+ * name. Queries shorter than three characters cannot use it.
+ */
+public class TrigramIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private final Map<Long, IntHashSet> postings = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+
+    // Result of the last search, kept current as items change so a filter built on it never goes stale
+    private String liveQuery;
+    private IntHashSet liveMatches;
+
+    public static boolean canSearch(String query) {
+        return query != null && normalize(query).length() >= MIN_QUERY_LENGTH;
+    }
+
+    public static boolean containsIgnoreCase(String text, String query) {
+        int max = text.length() - query.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /** Indexes an item, replacing whatever name was indexed for the same id. */
+    public void add(int id, String name) {
+        String lower = normalize(name);
+        String previous = names.put(id, lower);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        index(id, lower);
+
+        if (liveMatches != null) {
+            if (lower.contains(liveQuery)) {
+                liveMatches.add(id);
+            } else {
+                liveMatches.remove(id);
+            }
+        }
+    }
+
+    public void remove(int id) {
+        String previous = names.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        if (liveMatches != null) {
+            liveMatches.remove(id);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        names.clear();
+        if (liveMatches != null) {
+            liveMatches.clear();
+        }
+    }
+
+    /**
+     * Returns the ids whose name contains {@code query}, ignoring case. The
+     * returned set is updated in place by later add/remove calls until the
+     * next search or {@link #clearLiveQuery()}.
+     */
+    public IntHashSet search(String query) {
+        String lower = normalize(query);
+        if (lower.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+
+        List<IntHashSet> lists = new ArrayList<>();
+        IntHashSet result = new IntHashSet();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= lower.length(); i++) {
+            IntHashSet ids = postings.get(key(lower, i));
+            if (ids == null) {
+                lists = null;
+                break;
+            }
+            if (!lists.contains(ids)) {
+                lists.add(ids);
+            }
+        }
+
+        if (lists != null) {
+            lists.sort(Comparator.comparingInt(IntHashSet::size));
+            IntHashSet smallest = lists.get(0);
+            List<IntHashSet> others = lists.subList(1, lists.size());
+            smallest.forEach(id -> {
+                for (IntHashSet other : others) {
+                    if (!other.contains(id)) {
+                        return;
+                    }
+                }
+                // Sharing every trigram does not guarantee they are adjacent, so confirm
+                if (names.get(id).contains(lower)) {
+                    result.add(id);
+                }
+            });
+        }
+
+        liveQuery = lower;
+        liveMatches = result;
+        return result;
+    }
+
+    public void clearLiveQuery() {
+        liveQuery = null;
+        liveMatches = null;
+    }
+
+    private void index(int id, String lower) {
+        for (int i = 0; i + MIN_QUERY_LENGTH <= lower.length(); i++) {
+            postings.computeIfAbsent(key(lower, i), k -> new IntHashSet()).add(id);
+        }
+    }
+
+    private void unindex(int id, String lower) {
+        for (int i = 0; i + MIN_QUERY_LENGTH <= lower.length(); i++) {
+            Long key = key(lower, i);
+            IntHashSet ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private static long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
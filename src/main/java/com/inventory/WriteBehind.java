@@ -0,0 +1,409 @@
+package com.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Saves and deletes from the edit forms, written behind the UI. The views
+ * show an edit at once and queue it here. Later edits to a row that is still
+ * queued are merged into it. A background thread writes everything queued in
+ * one transaction with batched statements, every {@code writeBehind.flushMs}
+ * or as soon as {@code writeBehind.batchSize} rows are waiting, and once more
+ * on {@link #stop}. Each edit's future completes only after its transaction
+ * has committed: with the rows written (0 when the version check failed or
+ * the row was gone), or exceptionally when the edit could not be written.
+ * A rejected edit is found by writing the failed batch again in parts, so
+ * the edits queued alongside it still go through.
+ * <p>
+ * The queue lives only in memory. An edit is saved at most once: if the app
+ * exits or crashes before its transaction commits, the edit is lost, though
+ * the view already showed it. To bound what can be lost, new edits fail as
+ * if the queue were full once the oldest unsaved edit has waited longer than
+ * {@code writeBehind.maxWaitMs}, which happens only while writes stall.
+ */
+public class WriteBehind {
+
+    /** A queued edit: the version the row will have once it is written, and when that happens. */
+    public record Queued(int version, CompletableFuture<Integer> written) {
+    }
+
+    // Everything queued for one row since the last flush
+    private static final class Pending<T> {
+        T value;
+        // Item edits: the version the first merged edit was based on
+        int version;
+        int quantityChange;
+        final long queuedAt = System.currentTimeMillis();
+        boolean delete;
+        final List<CompletableFuture<Integer>> waiters = new ArrayList<>();
+    }
+
+    private final ItemRepository items;
+    private final SupplierRepository suppliers;
+    private final ConnectionSource connections;
+    private final long flushMs;
+    private final int batchSize;
+    private final int maxPending;
+    private final long maxWaitMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private Map<Integer, Pending<Item>> pendingItems = new LinkedHashMap<>();
+    private Map<Integer, Pending<Supplier>> pendingSuppliers = new LinkedHashMap<>();
+    // Rows of the flush in progress, which sync must not overwrite either
+    private final Set<Integer> writingItems = new HashSet<>();
+    private final Set<Integer> writingSuppliers = new HashSet<>();
+    // When the oldest edit of the flush in progress was queued, or 0 between flushes
+    private long writingSince;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehind(ItemRepository items, SupplierRepository suppliers, ConnectionSource connections,
+            long flushMs, int batchSize, int maxPending, long maxWaitMs) {
+        this.items = items;
+        this.suppliers = suppliers;
+        this.connections = connections;
+        this.flushMs = flushMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public WriteBehind() {
+        this(Database.items(), Database.suppliers(), Database::getConnection,
+                AppConfig.getLong("writeBehind.flushMs", 200),
+                AppConfig.getInt("writeBehind.batchSize", 100),
+                AppConfig.getInt("writeBehind.maxPending", 1_000),
+                AppConfig.getLong("writeBehind.maxWaitMs", 10_000));
+    }
+
+    public void start() {
+        running = true;
+        writer = Thread.ofVirtual().name("write-behind").start(this::run);
+    }
+
+    /** Writes everything still queued, then stops the writer. */
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            try {
+                writer.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a version-checked item update. The version of {@code item} is
+     * the one the edit was based on; when the row is still queued, the
+     * queued edit's version is kept instead, so the merged edit is checked
+     * against what the database has.
+     */
+    public Queued updateItem(Item item, int quantityChange) {
+        lock.lock();
+        try {
+            Pending<Item> pending = pendingItems.get(item.getId());
+            if (pending != null && pending.delete) {
+                return new Queued(item.getVersion(), CompletableFuture.completedFuture(0));
+            }
+            if (pending == null) {
+                if (isFull()) {
+                    return new Queued(item.getVersion(), queueFull());
+                }
+                pending = new Pending<>();
+                pending.version = item.getVersion();
+                pendingItems.put(item.getId(), pending);
+            }
+            pending.value = item;
+            pending.quantityChange += quantityChange;
+            return new Queued(pending.version + 1, waitFor(pending));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<Integer> deleteItem(int id) {
+        lock.lock();
+        try {
+            Pending<Item> pending = pendingItems.get(id);
+            if (pending == null) {
+                if (isFull()) {
+                    return queueFull();
+                }
+                pending = new Pending<>();
+                pendingItems.put(id, pending);
+            }
+            // Deleting makes any queued update moot
+            pending.delete = true;
+            pending.value = null;
+            return waitFor(pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<Integer> updateSupplier(Supplier supplier) {
+        lock.lock();
+        try {
+            Pending<Supplier> pending = pendingSuppliers.get(supplier.getId());
+            if (pending != null && pending.delete) {
+                return CompletableFuture.completedFuture(0);
+            }
+            if (pending == null) {
+                if (isFull()) {
+                    return queueFull();
+                }
+                pending = new Pending<>();
+                pendingSuppliers.put(supplier.getId(), pending);
+            }
+            pending.value = supplier;
+            return waitFor(pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<Integer> deleteSupplier(int id) {
+        lock.lock();
+        try {
+            Pending<Supplier> pending = pendingSuppliers.get(id);
+            if (pending == null) {
+                if (isFull()) {
+                    return queueFull();
+                }
+                pending = new Pending<>();
+                pendingSuppliers.put(id, pending);
+            }
+            pending.delete = true;
+            pending.value = null;
+            return waitFor(pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** True while an edit of this item is queued or being written. */
+    public boolean isItemPending(int id) {
+        lock.lock();
+        try {
+            return pendingItems.containsKey(id) || writingItems.contains(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isSupplierPending(int id) {
+        lock.lock();
+        try {
+            return pendingSuppliers.containsKey(id) || writingSuppliers.contains(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFull() {
+        return pendingItems.size() + pendingSuppliers.size() >= maxPending
+                || System.currentTimeMillis() - oldestQueuedAt() > maxWaitMs;
+    }
+
+    private long oldestQueuedAt() {
+        long oldest = writingSince != 0 ? writingSince : Long.MAX_VALUE;
+        // Merged edits keep their entry, so the first one in each map was queued first
+        if (!pendingItems.isEmpty()) {
+            oldest = Math.min(oldest, pendingItems.values().iterator().next().queuedAt);
+        }
+        if (!pendingSuppliers.isEmpty()) {
+            oldest = Math.min(oldest, pendingSuppliers.values().iterator().next().queuedAt);
+        }
+        return oldest == Long.MAX_VALUE ? System.currentTimeMillis() : oldest;
+    }
+
+    private static CompletableFuture<Integer> queueFull() {
+        // The writer is not keeping up, most likely because the database is unreachable
+        return CompletableFuture.failedFuture(new IllegalStateException("Too many unsaved changes are waiting."
+                + " The database may be unreachable; please try again shortly."));
+    }
+
+    private CompletableFuture<Integer> waitFor(Pending<?> pending) {
+        CompletableFuture<Integer> written = new CompletableFuture<>();
+        pending.waiters.add(written);
+        if (!running) {
+            written.completeExceptionally(new IllegalStateException("Saving has stopped."));
+        } else if (pendingItems.size() + pendingSuppliers.size() >= batchSize) {
+            flushNeeded.signal();
+        }
+        return written;
+    }
+
+    private void run() {
+        while (true) {
+            Map<Integer, Pending<Item>> itemBatch;
+            Map<Integer, Pending<Supplier>> supplierBatch;
+            lock.lock();
+            try {
+                if (running && pendingItems.size() + pendingSuppliers.size() < batchSize) {
+                    flushNeeded.await(flushMs, TimeUnit.MILLISECONDS);
+                }
+                if (pendingItems.isEmpty() && pendingSuppliers.isEmpty()) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                writingSince = oldestQueuedAt();
+                itemBatch = pendingItems;
+                supplierBatch = pendingSuppliers;
+                pendingItems = new LinkedHashMap<>();
+                pendingSuppliers = new LinkedHashMap<>();
+                writingItems.addAll(itemBatch.keySet());
+                writingSuppliers.addAll(supplierBatch.keySet());
+            } catch (InterruptedException e) {
+                running = false;
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                write(itemBatch, supplierBatch);
+            } finally {
+                lock.lock();
+                try {
+                    writingSince = 0;
+                    writingItems.clear();
+                    writingSuppliers.clear();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction. When that fails on a reachable
+     * database, the batch is split in halves that are written on their own,
+     * down to single edits, so one bad edit fails alone instead of taking
+     * every edit that happened to be queued with it.
+     */
+    private void write(Map<Integer, Pending<Item>> itemBatch, Map<Integer, Pending<Supplier>> supplierBatch) {
+        Failure failure = writeTogether(itemBatch, supplierBatch);
+        if (failure == null) {
+            return;
+        }
+        if (!failure.connected() || itemBatch.size() + supplierBatch.size() == 1) {
+            System.out.println("Database Error on saving changes: " + failure.cause().getMessage());
+            List.of(itemBatch.values(), supplierBatch.values()).forEach(batch -> batch.forEach(
+                    pending -> pending.waiters.forEach(waiter -> waiter.completeExceptionally(failure.cause()))));
+            return;
+        }
+        if (!itemBatch.isEmpty() && !supplierBatch.isEmpty()) {
+            write(itemBatch, Map.of());
+            write(Map.of(), supplierBatch);
+        } else if (supplierBatch.isEmpty()) {
+            List<Map<Integer, Pending<Item>>> halves = halves(itemBatch);
+            halves.forEach(half -> write(half, Map.of()));
+        } else {
+            List<Map<Integer, Pending<Supplier>>> halves = halves(supplierBatch);
+            halves.forEach(half -> write(Map.of(), half));
+        }
+    }
+
+    // Why a transaction failed; retrying parts of it only helps when the database was reached
+    private record Failure(SQLException cause, boolean connected) {
+    }
+
+    /** Writes a batch in one transaction and completes its edits, or returns why it was rolled back. */
+    private Failure writeTogether(Map<Integer, Pending<Item>> itemBatch,
+            Map<Integer, Pending<Supplier>> supplierBatch) {
+        List<Pending<Item>> itemUpdates = new ArrayList<>();
+        List<Item> updatedItems = new ArrayList<>();
+        List<Pending<Item>> itemDeletes = new ArrayList<>();
+        List<Integer> deletedItemIds = new ArrayList<>();
+        itemBatch.forEach((id, pending) -> {
+            if (pending.delete) {
+                itemDeletes.add(pending);
+                deletedItemIds.add(id);
+            } else {
+                Item item = pending.value;
+                itemUpdates.add(pending);
+                updatedItems.add(new Item(id, item.getName(), item.getQuantity(), item.getPrice(), pending.version,
+                        item.getSku()));
+            }
+        });
+        int[] quantityChanges = itemUpdates.stream().mapToInt(pending -> pending.quantityChange).toArray();
+
+        List<Pending<Supplier>> supplierUpdates = new ArrayList<>();
+        List<Supplier> updatedSuppliers = new ArrayList<>();
+        List<Pending<Supplier>> supplierDeletes = new ArrayList<>();
+        List<Integer> deletedSupplierIds = new ArrayList<>();
+        supplierBatch.forEach((id, pending) -> {
+            if (pending.delete) {
+                supplierDeletes.add(pending);
+                deletedSupplierIds.add(id);
+            } else {
+                supplierUpdates.add(pending);
+                updatedSuppliers.add(pending.value);
+            }
+        });
+
+        int[][] rows = new int[4][];
+        boolean connected = false;
+        Diagnostics.Timer timer = Diagnostics.start("writeBehind.write");
+        try (Connection conn = connections.get()) {
+            timer.acquired();
+            connected = true;
+            conn.setAutoCommit(false);
+            try {
+                rows[0] = updatedItems.isEmpty() ? new int[0] : items.updateAll(conn, updatedItems, quantityChanges);
+                rows[1] = deletedItemIds.isEmpty() ? new int[0] : items.deleteAll(conn, deletedItemIds);
+                rows[2] = updatedSuppliers.isEmpty() ? new int[0] : suppliers.updateAll(conn, updatedSuppliers);
+                rows[3] = deletedSupplierIds.isEmpty() ? new int[0] : suppliers.deleteAll(conn, deletedSupplierIds);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            timer.failed(e);
+            return new Failure(e, connected);
+        }
+        timer.succeeded(null);
+        complete(itemUpdates, rows[0]);
+        complete(itemDeletes, rows[1]);
+        complete(supplierUpdates, rows[2]);
+        complete(supplierDeletes, rows[3]);
+        return null;
+    }
+
+    private static <T> List<Map<Integer, Pending<T>>> halves(Map<Integer, Pending<T>> batch) {
+        Map<Integer, Pending<T>> first = new LinkedHashMap<>();
+        Map<Integer, Pending<T>> second = new LinkedHashMap<>();
+        batch.forEach((id, pending) -> (first.size() < batch.size() / 2 ? first : second).put(id, pending));
+        return List.of(first, second);
+    }
+
+    private static void complete(List<? extends Pending<?>> batch, int[] rows) {
+        for (int i = 0; i < batch.size(); i++) {
+            int written = rows[i];
+            batch.get(i).waiters.forEach(waiter -> waiter.complete(written));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how long a fresh JVM takes to start the app: the window, the
+ * pool, the schema check, and every tab with its first reads. It starts
+ * the shaded jar in {@code runs} child JVMs with {@code app.exitAfterStartup}
+ * set, so each one quits as soon as its tabs have loaded, once plain and
+ * once with the AppCDS archive if there is one, against a scratch H2
+ * database, and prints the median wall-clock times. The {@code appcds}
+ * build profile runs it after archiving; see the README. Needs a display,
+ * as the children open the real window.
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10;
+        Path jar = Path.of("target", "InventoryApp-1.0-SNAPSHOT.jar");
+        Path archive = Path.of("target", "InventoryApp.jsa");
+        for (String arg : args) {
+            if (arg.startsWith("runs=")) {
+                runs = Integer.parseInt(arg.substring(5));
+            } else if (arg.startsWith("jar=")) {
+                jar = Path.of(arg.substring(4));
+            } else if (arg.startsWith("archive=")) {
+                archive = Path.of(arg.substring(8));
+            } else {
+                System.err.println("Usage: StartupBenchmark [runs=N] [jar=app.jar] [archive=file.jsa]");
+                System.exit(2);
+            }
+        }
+
+        Path scratch = Files.createTempDirectory("inventory-startup");
+        String database = scratch.resolve("inventory_db").toString();
+        // The first start creates the schema; every later one only checks its version
+        long first = launch(jar, database, List.of());
+        System.out.printf("%-34s %8d ms%n", "first start (creates schema)", first);
+        System.out.printf("%-34s %8d ms%n", "later starts, median", median(jar, database, List.of(), runs));
+        if (Files.isRegularFile(archive)) {
+            List<String> cds = List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto");
+            System.out.printf("%-34s %8d ms%n", "later starts with AppCDS, median",
+                    median(jar, database, cds, runs));
+        } else {
+            System.out.println("No AppCDS archive at " + archive + "; build one with mvn -P appcds package");
+        }
+    }
+
+    private static long median(Path jar, String database, List<String> jvmOptions, int runs)
+            throws IOException, InterruptedException {
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = launch(jar, database, jvmOptions);
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    // Wall-clock milliseconds from starting the child JVM until it has exited
+    private static long launch(Path jar, String database, List<String> jvmOptions)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-Dapp.exitAfterStartup=true");
+        command.add("-Ddb.backend=h2");
+        command.add("-Ddb.h2.path=" + database);
+        command.add("-jar");
+        command.add(jar.toString());
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (process.waitFor() != 0) {
+            throw new IOException("Startup run failed: " + String.join(" ", command));
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,57 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readsQuotedFieldsWithCommasQuotesAndNewlines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,quantity,price\r\n\"Bolt, hex\",5,1.5\n\"He said \"\"hi\"\"\",1,2\n\"two\nlines\",3,4"));
+
+        assertEquals(List.of("name", "quantity", "price"), reader.readRecord());
+        assertEquals(List.of("Bolt, hex", "5", "1.5"), reader.readRecord());
+        assertEquals(List.of("He said \"hi\"", "1", "2"), reader.readRecord());
+        assertEquals(List.of("two\nlines", "3", "4"), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void keepsEmptyTrailingFieldsAndSkipsBlankLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,,\n\n\nb,c,\n"));
+
+        assertEquals(List.of("a", "", ""), reader.readRecord());
+        assertEquals(List.of("b", "c", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void writerOutputReadsBackUnchanged() throws IOException {
+        List<String> record = List.of("plain", "with,comma", "with \"quote\"", "multi\nline", "");
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRecord(record);
+
+        assertEquals(record, new CsvReader(new StringReader(out.toString())).readRecord());
+    }
+
+    @Test
+    public void validatesImportedItemsLikeTheForm() {
+        assertNull(ItemValidator.validateItem("Bolt", "5", "1.25"));
+        assertEquals(ItemValidator.EMPTY_NAME, ItemValidator.validateItem("", "5", "1"));
+        assertEquals(ItemValidator.NOT_A_NUMBER, ItemValidator.validateItem("Bolt", "five", "1"));
+        assertEquals(ItemValidator.NEGATIVE, ItemValidator.validateItem("Bolt", "-1", "1"));
+        for (String price : new String[] { "NaN", "Infinity", "1e400" }) {
+            assertEquals(ItemValidator.NOT_A_NUMBER, ItemValidator.validateItem("Bolt", "5", price));
+        }
+        assertEquals(ItemValidator.INVALID_SUPPLY_TERMS, ItemValidator.validateItemSupplier(true, "NaN", "3"));
+    }
+}
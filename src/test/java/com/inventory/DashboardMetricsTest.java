@@ -0,0 +1,44 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class DashboardMetricsTest {
+
+    @Test
+    public void appliesDeltasFromMutations() {
+        DashboardMetrics metrics = new DashboardMetrics();
+        Item bolt = new Item(1, "Bolt", 5, 2.0);
+        metrics.itemAdded(bolt);
+        metrics.itemAdded(new Item(2, "Nut", 20, 0.5));
+
+        assertEquals(2, metrics.getTotalItems());
+        assertEquals(25, metrics.getTotalStock());
+        assertEquals(20.0, metrics.getTotalValue(), 1e-9);
+        assertEquals(1, metrics.getLowStockCount());
+
+        metrics.itemUpdated(bolt, new Item(1, "Bolt", 15, 2.0));
+        assertEquals(35, metrics.getTotalStock());
+        assertEquals(0, metrics.getLowStockCount());
+
+        metrics.itemRemoved(new Item(2, "Nut", 20, 0.5));
+        assertEquals(1, metrics.getTotalItems());
+        assertEquals(30.0, metrics.getTotalValue(), 1e-9);
+    }
+
+    @Test
+    public void notifiesOnlyWhenSomethingChanged() {
+        DashboardMetrics metrics = new DashboardMetrics();
+        int[] calls = { 0 };
+        metrics.addListener(() -> calls[0]++);
+
+        Item bolt = new Item(1, "Bolt", 5, 2.0);
+        metrics.itemAdded(bolt);
+        metrics.itemUpdated(bolt, new Item(1, "Bolt", 5, 2.0));
+        assertEquals(1, calls[0]);
+
+        metrics.itemUpdated(bolt, new Item(1, "Bolt", 4, 2.0));
+        assertEquals(2, calls[0]);
+    }
+}
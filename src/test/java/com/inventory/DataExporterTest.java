@@ -0,0 +1,26 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class DataExporterTest {
+
+    private static String json(String value) throws IOException {
+        StringWriter out = new StringWriter();
+        DataExporter.writeJsonString(value, out);
+        return out.toString();
+    }
+
+    @Test
+    public void escapesQuotesBackslashesAndControlCharacters() throws IOException {
+        assertEquals("\"plain\"", json("plain"));
+        assertEquals("\"say \\\"hi\\\"\"", json("say \"hi\""));
+        assertEquals("\"a\\\\b\"", json("a\\b"));
+        assertEquals("\"line\\nbreak\\ttab\"", json("line\nbreak\ttab"));
+        assertEquals("\"\\u0001\"", json("\u0001"));
+    }
+}
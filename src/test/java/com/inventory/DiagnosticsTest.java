@@ -0,0 +1,93 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DiagnosticsTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void openPool() {
+        pool = new ConnectionPool("jdbc:h2:mem:diagnostics;DB_CLOSE_DELAY=-1;MODE=MySQL", "", "", 0, 2, 60_000,
+                1_000, 1_000, 2);
+    }
+
+    @AfterEach
+    public void closePool() {
+        pool.close();
+    }
+
+    private static Diagnostics.Summary summary(String operation) {
+        return Diagnostics.getSummaries().stream().filter(s -> s.operation().equals(operation)).findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    public void splitsEachRunIntoPhasesAndCountsRows() throws SQLException {
+        Diagnostics.Timer timer = Diagnostics.start("test.write");
+        try (Connection conn = pool.borrow()) {
+            timer.acquired();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS t (id INT)");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO t(id) VALUES(?)")) {
+                for (int i = 0; i < 3; i++) {
+                    pstmt.setInt(1, i);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            timer.succeeded(List.of("read", "back"));
+        }
+        Diagnostics.recordApply("test.write", 2_000_000);
+
+        Diagnostics.Summary summary = summary("test.write");
+        assertEquals(1, summary.count());
+        assertEquals(0, summary.errors());
+        // Three inserted plus the two in the result
+        assertEquals(5, summary.rows());
+        for (Diagnostics.Phase phase : Diagnostics.Phase.values()) {
+            assertEquals(1, summary.latency(phase).count(), phase.name());
+        }
+        assertTrue(summary.latency(Diagnostics.Phase.QUERY).maxMs() > 0);
+        assertEquals(2.0, summary.latency(Diagnostics.Phase.APPLY).maxMs(), 0.05);
+    }
+
+    @Test
+    public void recordsFailuresNewestFirst() {
+        Diagnostics.start("test.fail").failed(new SQLException("first"));
+        Diagnostics.start("test.fail").failed(new SQLException("second"));
+        Diagnostics.start("test.fail").cancelled();
+
+        assertEquals(2, summary("test.fail").errors());
+        assertEquals(2, summary("test.fail").count());
+        assertEquals("second", Diagnostics.getFailures().get(0).message());
+        assertTrue(Diagnostics.report().contains("test.fail"));
+    }
+
+    @Test
+    public void nestedRunsAlsoCountTowardsTheEnclosingOne() throws SQLException {
+        Diagnostics.Timer outer = Diagnostics.start("test.outer");
+        Diagnostics.Timer inner = Diagnostics.start("test.inner");
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS n (id INT)");
+            stmt.executeUpdate("INSERT INTO n(id) VALUES(1)");
+        }
+        inner.succeeded(null);
+        outer.succeeded(null);
+
+        assertEquals(1, summary("test.inner").rows());
+        assertEquals(1, summary("test.outer").rows());
+    }
+}
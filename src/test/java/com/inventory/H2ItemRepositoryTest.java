@@ -0,0 +1,265 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class H2ItemRepositoryTest {
+
+    private final ItemRepository items = new H2ItemRepository();
+    private final SupplierRepository suppliers = new JdbcSupplierRepository();
+    private final ItemSupplierRepository links = new ItemSupplierRepository();
+    private Connection conn;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE");
+        // Table as created before delta sync, without version and updated_at
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE inventory (id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(255) NOT NULL,"
+                    + " quantity INT NOT NULL, price DOUBLE NOT NULL)");
+        }
+        // The baseline migration upgrades tables from before migrations existed
+        Migrations.migrate(conn, Database.MIGRATIONS);
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    private static List<String> names(List<Item> list) {
+        return list.stream().map(Item::getName).toList();
+    }
+
+    private static List<String> lowStockNames(List<DashboardMetrics.LowStockItem> page) {
+        return page.stream().map(DashboardMetrics.LowStockItem::name).toList();
+    }
+
+    @Test
+    public void insertsUpdatesAndDeletesItems() throws SQLException {
+        Item bolt = items.insert(conn, "Hex bolt M8", 5, 0.25);
+        Item nut = items.insert(conn, "Hex nut M8", 40, 0.10);
+        assertTrue(nut.getId() > bolt.getId());
+        assertEquals(2, items.count(conn));
+
+        assertEquals(1, items.update(conn, new Item(bolt.getId(), "Hex bolt M8", 15, 0.30, bolt.getVersion()), 10));
+        assertEquals(15, items.findAll(conn).get(0).getQuantity());
+
+        assertEquals(1, items.delete(conn, nut.getId()));
+        assertEquals(0, items.delete(conn, nut.getId()));
+        assertEquals(List.of("Hex bolt M8"), names(items.findAll(conn)));
+    }
+
+    @Test
+    public void rejectsUpdatesBasedOnAStaleVersion() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 5, 0.25);
+        assertEquals(1, items.update(conn, new Item(bolt.getId(), "Bolt", 8, 0.25, 1), 3));
+        // A second station still holding version 1
+        assertEquals(0, items.update(conn, new Item(bolt.getId(), "Bolt", 2, 0.25, 1), -3));
+        assertEquals(new Item(bolt.getId(), "Bolt", 8, 0.25, 2), items.findById(conn, bolt.getId()));
+    }
+
+    @Test
+    public void adjustsQuantityRelativeToTheStoredValue() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 5, 0.25);
+        // Stock movements leave the version alone, so they never turn an edit into a conflict
+        assertEquals(new Item(bolt.getId(), "Bolt", 15, 0.25, 1), items.adjustQuantity(conn, bolt.getId(), 10));
+        assertEquals(12, items.adjustQuantity(conn, bolt.getId(), -3).getQuantity());
+        assertNull(items.adjustQuantity(conn, bolt.getId(), -13));
+        assertEquals(12, items.findById(conn, bolt.getId()).getQuantity());
+        assertNull(items.adjustQuantity(conn, bolt.getId() + 1, 1));
+        assertTrue(conn.getAutoCommit());
+    }
+
+    @Test
+    public void editsWholeSelectionsInChunks() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < InList.CHUNK_SIZE + 5; i++) {
+            ids.add(items.insert(conn, "Part " + i, 10, 2.0).getId());
+        }
+        items.adjustQuantity(conn, ids.get(0), 5);
+
+        Map<Integer, Double> prices = items.scalePrices(conn, ids, 1.125);
+        assertEquals(ids.size(), prices.size());
+        assertEquals(2.25, prices.get(ids.get(ids.size() - 1)));
+        assertEquals(ids.size(), items.setQuantities(conn, ids, 7));
+        assertTrue(conn.getAutoCommit());
+        assertEquals(new Item(ids.get(0), "Part 0", 7, 2.25, 3), items.findById(conn, ids.get(0)));
+        assertEquals(ids.size() * 7L, items.snapshot(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, 50).totalStock());
+
+        Timestamp start = new Timestamp(System.currentTimeMillis() - 1_000);
+        assertEquals(ids.size() - 1, items.deleteIn(conn, ids.subList(1, ids.size())));
+        assertEquals(1, items.count(conn));
+        assertEquals(ids.size() - 1, items.findDeletedSince(conn, start).size());
+    }
+
+    @Test
+    public void linksItemsToSuppliers() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 5, 0.25);
+        Item nut = items.insert(conn, "Nut", 5, 0.10);
+        Supplier acme = suppliers.insert(conn, "Acme", null, null, null);
+        Supplier bolts = suppliers.insert(conn, "Bolts Inc", null, null, null);
+        links.link(conn, bolt.getId(), acme.getId(), 0.20, 3);
+        links.link(conn, bolt.getId(), bolts.getId(), 0.15, 10);
+        links.link(conn, nut.getId(), acme.getId(), 0.05, 3);
+        // Linking again changes the terms
+        links.link(conn, nut.getId(), acme.getId(), 0.06, 2);
+
+        assertEquals(List.of(new ItemSupplier(bolt.getId(), "Bolt", acme.getId(), "Acme", 0.20, 3),
+                new ItemSupplier(bolt.getId(), "Bolt", bolts.getId(), "Bolts Inc", 0.15, 10),
+                new ItemSupplier(nut.getId(), "Nut", acme.getId(), "Acme", 0.06, 2)),
+                links.findForItems(conn, List.of(bolt.getId(), nut.getId())));
+        assertEquals(List.of("Bolt", "Nut"),
+                links.findForSupplier(conn, acme.getId()).stream().map(ItemSupplier::itemName).toList());
+
+        assertEquals(1, links.unlink(conn, bolt.getId(), bolts.getId()));
+        // Deleting either side takes its links along
+        items.delete(conn, nut.getId());
+        assertEquals(List.of(new ItemSupplier(bolt.getId(), "Bolt", acme.getId(), "Acme", 0.20, 3)),
+                links.findAll(conn));
+        suppliers.delete(conn, acme.getId());
+        assertTrue(links.findAll(conn).isEmpty());
+    }
+
+    @Test
+    public void keepsSkusUnique() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", "4006381333931", 5, 0.25);
+        items.insert(conn, "Nut", 40, 0.10);
+        assertEquals("4006381333931", items.findById(conn, bolt.getId()).getSku());
+        assertEquals(Map.of("4006381333931", bolt.getId()), items.findSkus(conn));
+        assertThrows(SQLException.class, () -> items.insert(conn, "Washer", "4006381333931", 1, 0.01));
+    }
+
+    @Test
+    public void pagesByIdKeyset() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            items.insert(conn, "Item " + i, i, 1.0);
+        }
+        List<Item> first = items.findPage(conn, 0, 2);
+        assertEquals(List.of("Item 0", "Item 1"), names(first));
+        assertEquals(List.of("Item 2", "Item 3"), names(items.findPage(conn, first.get(1).getId(), 2)));
+        assertEquals(first.get(1).getId(), items.idAtOffset(conn, 1));
+        assertEquals(Integer.MAX_VALUE, items.idAtOffset(conn, 5));
+    }
+
+    @Test
+    public void searchesByPrefixAndWords() throws SQLException {
+        items.insert(conn, "Red bolt", 1, 1.0);
+        items.insert(conn, "Blue bolt", 1, 1.0);
+        items.insert(conn, "Redwood plank", 1, 1.0);
+        items.insert(conn, "100% cotton rag", 1, 1.0);
+        items.insert(conn, "Cable-tie 200mm", 1, 1.0);
+        ItemSearch search = new ItemSearch(items);
+
+        assertEquals(List.of("Red bolt", "Redwood plank"),
+                names(search.search(conn, "red", ItemSearch.Mode.PREFIX, 10)));
+        assertEquals(List.of("100% cotton rag"), names(search.search(conn, "100%", ItemSearch.Mode.PREFIX, 10)));
+        assertEquals(List.of("Red bolt"), names(search.search(conn, "bol RED", ItemSearch.Mode.WORDS, 10)));
+        assertEquals(2, search.search(conn, "bolt", ItemSearch.Mode.WORDS, 10).size());
+        assertEquals(0, search.search(conn, "olt", ItemSearch.Mode.WORDS, 10).size());
+        assertEquals(0, search.search(conn, "+-*", ItemSearch.Mode.WORDS, 10).size());
+        assertEquals(List.of("Cable-tie 200mm"), names(search.search(conn, "cable-tie", ItemSearch.Mode.WORDS, 10)));
+        assertEquals(List.of("Cable-tie 200mm"), names(search.search(conn, "tie", ItemSearch.Mode.WORDS, 10)));
+    }
+
+    @Test
+    public void summarizesForDashboard() throws SQLException {
+        items.insert(conn, "Low", 3, 2.0);
+        items.insert(conn, "High", 20, 1.5);
+        DashboardMetrics.Snapshot snapshot = items.snapshot(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, 50);
+        assertEquals(2, snapshot.totalItems());
+        assertEquals(23, snapshot.totalStock());
+        assertEquals(36.0, snapshot.totalValue(), 1e-9);
+        assertEquals(1, snapshot.lowStockCount());
+        assertEquals(1, snapshot.lowStock().size());
+        assertEquals("Low", snapshot.lowStock().get(0).name());
+    }
+
+    @Test
+    public void pagesLowStockByKeyset() throws SQLException {
+        items.insert(conn, "Tie", 3, 1.0);
+        items.insert(conn, "Low", 3, 1.0);
+        Item moved = items.insert(conn, "Moved", 12, 1.0);
+        Item restocked = items.insert(conn, "Restocked", 1, 1.0);
+        // Unfolded movements take one item below the threshold and another above it
+        items.adjustQuantity(conn, moved.getId(), -10);
+        items.adjustQuantity(conn, restocked.getId(), 20);
+
+        DashboardMetrics.Snapshot snapshot = items.snapshot(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, 2);
+        assertEquals(3, snapshot.lowStockCount());
+        assertEquals(List.of("Moved", "Tie"), lowStockNames(snapshot.lowStock()));
+        List<DashboardMetrics.LowStockItem> next = items.findLowStock(conn, DashboardMetrics.LOW_STOCK_THRESHOLD,
+                snapshot.lowStock().get(1), 2);
+        assertEquals(List.of("Low"), lowStockNames(next));
+        assertTrue(items.findLowStock(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, next.get(0), 2).isEmpty());
+    }
+
+    @Test
+    public void storesSuppliers() throws SQLException {
+        Supplier acme = suppliers.insert(conn, "Acme", "Jo", "jo@acme.test", null);
+        assertEquals(1, suppliers.update(conn, new Supplier(acme.getId(), "Acme Ltd", "Jo", "jo@acme.test", "555")));
+        List<Supplier> all = suppliers.findAll(conn);
+        assertEquals("Acme Ltd", all.get(0).getName());
+        assertEquals("555", all.get(0).getPhone());
+        assertEquals(1, suppliers.delete(conn, acme.getId()));
+        assertTrue(suppliers.findAll(conn).isEmpty());
+        assertNull(items.prepareSearch(conn, "  ", ItemSearch.Mode.WORDS, 10));
+    }
+
+    @Test
+    public void reportsChangesAndDeletesSinceATimestamp() throws SQLException {
+        Timestamp start = new Timestamp(System.currentTimeMillis() - 1_000);
+        Item bolt = items.insert(conn, "Bolt", 5, 0.25);
+        Item nut = items.insert(conn, "Nut", 40, 0.10);
+        assertEquals(1, items.findAll(conn).get(0).getVersion());
+
+        items.update(conn, new Item(bolt.getId(), "Bolt", 6, 0.25, 1), 1);
+        items.delete(conn, nut.getId());
+
+        List<Item> changed = items.findChangedSince(conn, start, 10);
+        assertEquals(List.of(new Item(bolt.getId(), "Bolt", 6, 0.25, 2)), changed);
+        assertEquals(List.of(nut.getId()), items.findDeletedSince(conn, start));
+        assertTrue(items.findChangedSince(conn, new Timestamp(System.currentTimeMillis() + 60_000), 10).isEmpty());
+
+        Supplier acme = suppliers.insert(conn, "Acme", null, null, null);
+        suppliers.delete(conn, acme.getId());
+        assertEquals(List.of(acme.getId()), suppliers.findDeletedSince(conn, start));
+        assertEquals(List.of(nut.getId()), items.findDeletedSince(conn, start));
+        assertEquals(2, Tombstones.prune(conn, new Timestamp(System.currentTimeMillis() + 60_000)));
+    }
+
+    @Test
+    public void insertsInBatchesAndStreamsForExport() throws SQLException {
+        items.insertAll(conn, List.of(new Item(0, "Bolt", 5, 0.25, 1, "B-1"), new Item(0, "Nut", 7, 0.1)));
+        suppliers.insertAll(conn, List.of(new Supplier(0, "Acme", "Ann", "", "")));
+
+        List<String> exported = new ArrayList<>();
+        try (PreparedStatement pstmt = items.prepareExport(conn); ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                exported.add(rs.getString("name") + "," + rs.getString("sku") + "," + rs.getInt("quantity"));
+            }
+        }
+        assertEquals(List.of("Bolt,B-1,5", "Nut,null,7"), exported);
+        try (PreparedStatement pstmt = suppliers.prepareExport(conn); ResultSet rs = pstmt.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals("Ann", rs.getString("contact_person"));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class ItemSearchTest {
+
+    @Test
+    public void escapesLikeWildcards() {
+        assertEquals("50\\% off\\_sale\\\\", ItemSearch.escapeLike("50% off_sale\\"));
+    }
+
+    @Test
+    public void buildsBooleanModeQueryFromWords() {
+        assertEquals("+red* +bolt*", ItemSearch.toBooleanQuery("  red   bolt "));
+    }
+
+    @Test
+    public void dropsBooleanOperators() {
+        assertEquals("+m8*", ItemSearch.toBooleanQuery("+m8 -bolt* \"\""));
+    }
+
+    @Test
+    public void splitsWordsAtOperators() {
+        assertEquals("+cable* +tie* +200*", ItemSearch.toBooleanQuery("cable-tie (200)"));
+    }
+}
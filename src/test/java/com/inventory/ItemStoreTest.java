@@ -0,0 +1,114 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+public class ItemStoreTest {
+
+    @Test
+    public void storesRowsByValue() {
+        ItemStore store = new ItemStore();
+        store.setAll(List.of(new Item(1, "Bolt", 5, 0.25), new Item(2, "Écrou ø8", 40, 1.10)));
+        store.add(new Item(3, "Nut", 7, 19.99, 2, "4006381333931"));
+
+        assertEquals(3, store.size());
+        assertEquals(new Item(2, "Écrou ø8", 40, 1.10), store.get(1));
+        assertEquals(19.99, store.get(2).getPrice());
+        assertEquals(2, store.indexOfId(3));
+        assertEquals("4006381333931", store.get(2).getSku());
+
+        store.set(0, new Item(1, "Hex bolt", 6, 0.30));
+        store.remove(1);
+        assertEquals(List.of(new Item(1, "Hex bolt", 6, 0.30), new Item(3, "Nut", 7, 19.99, 2, "4006381333931")),
+                new ArrayList<>(store));
+        assertEquals(-1, store.indexOfId(2));
+    }
+
+    @Test
+    public void reportsRemovedRowsInChanges() {
+        ItemStore store = new ItemStore();
+        store.setAll(List.of(new Item(1, "Bolt", 5, 0.25), new Item(2, "Nut", 40, 0.10)));
+        List<Item> removed = new ArrayList<>();
+        store.addListener((ListChangeListener<Item>) change -> {
+            while (change.next()) {
+                removed.addAll(change.getRemoved());
+            }
+        });
+
+        store.remove(0);
+        store.setAll(List.of(new Item(3, "Washer", 1, 0.01)));
+        store.clear();
+        assertEquals(List.of(new Item(1, "Bolt", 5, 0.25), new Item(2, "Nut", 40, 0.10),
+                new Item(3, "Washer", 1, 0.01)), removed);
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void reclaimsNamesOfReplacedRows() {
+        ItemStore store = new ItemStore();
+        String longName = "x".repeat(200);
+        for (int i = 0; i < 100; i++) {
+            store.add(new Item(i, longName, i, 1.0));
+        }
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 100; i++) {
+                store.set(i, new Item(i, longName + round, i, 1.0));
+            }
+        }
+        assertEquals(longName + 199, store.get(99).getName());
+        assertTrue(store.getMemoryFootprint() < 4 << 20);
+    }
+
+    @Test
+    public void findsRowsByIdAfterTheyMove() {
+        ItemStore store = new ItemStore();
+        store.setAll(List.of(new Item(10, "Bolt", 5, 0.25), new Item(0, "Nut", 40, 0.10)));
+        store.add(0, new Item(30, "Washer", 1, 0.01));
+        assertEquals(2, store.indexOfId(0));
+        assertEquals(1, store.indexOfId(10));
+
+        store.remove(0);
+        store.set(1, new Item(20, "Hinge", 2, 3.50));
+        assertEquals(-1, store.indexOfId(30));
+        assertEquals(-1, store.indexOfId(0));
+        assertEquals(1, store.indexOfId(20));
+        assertEquals("Hinge", store.getName(1));
+        assertEquals(350, store.getPriceCents(1));
+        assertEquals(5, store.getQuantity(0));
+    }
+
+    @Test
+    public void filtersByRowIndexAndFollowsChanges() {
+        ItemStore store = new ItemStore();
+        store.setAll(List.of(new Item(1, "Bolt", 5, 0.25), new Item(2, "Nut", 40, 0.10),
+                new Item(3, "Bolt M8", 7, 0.30)));
+        IndexFilteredList<Item> filtered = new IndexFilteredList<>(store);
+        // Replays every change event, so a wrong event shows up as a mismatch
+        List<Item> mirror = new ArrayList<>(filtered);
+        filtered.addListener((ListChangeListener<Item>) change -> {
+            while (change.next()) {
+                mirror.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                mirror.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        });
+
+        filtered.setFilter(row -> store.getName(row).startsWith("Bolt"));
+        assertEquals(List.of(store.get(0), store.get(2)), mirror);
+        store.add(1, new Item(4, "Bolt M10", 1, 0.50));
+        store.remove(0);
+        store.set(2, new Item(3, "Screw", 7, 0.30));
+        store.add(new Item(5, "Bolt M12", 2, 0.60));
+        assertEquals(List.of(new Item(4, "Bolt M10", 1, 0.50), new Item(5, "Bolt M12", 2, 0.60)), mirror);
+        assertEquals(new ArrayList<>(filtered), mirror);
+        assertEquals(3, filtered.getSourceIndex(1));
+
+        filtered.setFilter(null);
+        assertEquals(new ArrayList<>(store), mirror);
+    }
+}
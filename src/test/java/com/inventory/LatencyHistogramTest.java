@@ -0,0 +1,54 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 60 + 1, "expected about " + expected + " but was "
+                + actual);
+    }
+
+    @Test
+    public void readsPercentilesBackWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1_000, histogram.getMin());
+        assertEquals(100_000_000, histogram.getMax());
+        assertWithin(50_000_000, histogram.percentile(50));
+        assertWithin(99_000_000, histogram.percentile(99));
+        assertWithin(99_900_000, histogram.percentile(99.9));
+        assertEquals(100_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void bucketsCoverEveryValueWithoutGaps() {
+        for (long value : new long[] { 0, 1, 127, 128, 129, 255, 256, 1_000_003, Long.MAX_VALUE }) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(value <= LatencyHistogram.highestValue(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.highestValue(bucket - 1));
+        }
+    }
+
+    @Test
+    public void addsUpPerThreadHistograms() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            fast.record(1_000);
+        }
+        slow.record(5_000_000);
+
+        fast.add(slow);
+        assertEquals(100, fast.getCount());
+        assertWithin(1_000, fast.percentile(99));
+        assertEquals(5_000_000, fast.percentile(99.9));
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class LoadTestTest {
+
+    @Test
+    public void spreadsTheMixByWeight() {
+        LoadTest.Operation[] mix = LoadTest.parseMix("read:2, edit:1,search:0");
+        assertArrayEquals(new LoadTest.Operation[] { LoadTest.Operation.READ, LoadTest.Operation.READ,
+                LoadTest.Operation.EDIT }, mix);
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.parseMix("delete:5"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.parseMix("read:0"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MigrationsTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE");
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    private boolean hasIndex(String table, String index) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void upgradesTheAppSchemaOnce() throws SQLException {
+        List<Migrations.Migration> migrations = Database.MIGRATIONS;
+        assertEquals(0, Migrations.currentVersion(conn));
+
+        assertEquals(migrations.size(), Migrations.migrate(conn, migrations));
+        assertEquals(migrations.size(), Migrations.currentVersion(conn));
+        assertTrue(hasIndex("inventory", "idx_inventory_quantity_price"));
+        assertFalse(hasIndex("inventory", "idx_inventory_quantity"));
+        assertTrue(hasIndex("stock_movements", "idx_stock_movements_pending"));
+
+        assertEquals(0, Migrations.migrate(conn, migrations));
+        assertEquals(migrations.size(), count("schema_migrations"));
+    }
+
+    @Test
+    public void upgradesATableFromBeforeMigrations() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE inventory (id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(255) NOT NULL,"
+                    + " quantity INT NOT NULL, price DOUBLE NOT NULL)");
+            stmt.execute("INSERT INTO inventory(name, quantity, price) VALUES('Bolt', 5, 0.25)");
+        }
+
+        Migrations.migrate(conn, Database.MIGRATIONS);
+        assertTrue(hasIndex("inventory", "ux_inventory_sku"));
+        assertTrue(hasIndex("inventory", "idx_inventory_quantity_price"));
+        assertFalse(hasIndex("inventory", "idx_inventory_quantity"));
+        assertEquals(5, new H2ItemRepository().findById(conn, 1).getQuantity());
+    }
+
+    @Test
+    public void failsOnAFailedMigrationAndRetriesItNextTime() throws SQLException {
+        Migrations.Migration create = new Migrations.Migration(1, "Create", c -> {
+            try (Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE TABLE t (id INT)");
+            }
+        });
+        Migrations.Migration broken = new Migrations.Migration(2, "Fill", c -> {
+            try (Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("INSERT INTO t(id) VALUES(1)");
+            }
+            throw new SQLException("broken");
+        });
+        Migrations.Migration fill = new Migrations.Migration(2, "Fill", c -> {
+            try (Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("INSERT INTO t(id) VALUES(1)");
+            }
+        });
+        Migrations.Migration never = new Migrations.Migration(3, "After", c -> {
+            throw new AssertionError("ran past a failed migration");
+        });
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> Migrations.migrate(conn, List.of(create, broken, never)));
+        assertTrue(e.getMessage().contains("version 2 (Fill)"), e.getMessage());
+        assertEquals(1, Migrations.currentVersion(conn));
+        // The insert was rolled back with the failed migration
+        assertEquals(0, count("t"));
+
+        assertEquals(1, Migrations.migrate(conn, List.of(create, fill)));
+        assertEquals(2, Migrations.currentVersion(conn));
+        assertEquals(1, count("t"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class SkuIndexTest {
+
+    private final SkuIndex index = new SkuIndex(new DeltaSync(null, null, 1_000, 0, 10));
+
+    @Test
+    public void looksUpNormalizedSkus() {
+        index.put(1, "abc-1");
+        assertEquals(1, index.lookup(" ABC-1 "));
+        assertNull(index.lookup("abc-2"));
+        assertNull(index.lookup("  "));
+        assertNull(SkuIndex.normalize(""));
+    }
+
+    @Test
+    public void followsSkusThatChangeOrMove() {
+        index.put(1, "A");
+        index.put(1, "B");
+        assertNull(index.lookup("A"));
+        assertEquals(1, index.lookup("B"));
+
+        // Another item took the SKU over, then the first one was deleted
+        index.put(2, "B");
+        index.remove(1);
+        assertEquals(2, index.lookup("B"));
+        index.put(2, null);
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StockLedgerTest {
+
+    private static final String URL = "jdbc:h2:mem:ledger;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE";
+
+    private final ItemRepository items = new H2ItemRepository();
+    private Connection conn;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException {
+        // Kept open for the whole test, so the ledger's own connections see the same in-memory database
+        conn = DriverManager.getConnection(URL);
+        Migrations.migrate(conn, Database.MIGRATIONS);
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    private int storedQuantity(int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT quantity FROM inventory WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private void move(int id, int delta, Timestamp at) throws SQLException {
+        String sql = "INSERT INTO stock_movements(item_id, delta, reason, moved_at) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            pstmt.setInt(2, delta);
+            pstmt.setString(3, StockLedger.Reason.RECEIVE.name());
+            pstmt.setTimestamp(4, at);
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Test
+    public void recordsMovementsInBatchesAndFoldsThemIntoTheSnapshot() throws Exception {
+        Item bolt = items.insert(conn, "Bolt", 5, 0.25);
+        StockLedger ledger = new StockLedger(() -> DriverManager.getConnection(URL), 50, 60_000, 10_000);
+        ledger.start();
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            written.add(ledger.record(bolt.getId(), 1, StockLedger.Reason.RECEIVE));
+        }
+        CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).join();
+
+        // Reads already count the tail; the row itself is untouched
+        assertEquals(205, items.findById(conn, bolt.getId()).getQuantity());
+        assertEquals(205, items.snapshot(conn, DashboardMetrics.LOW_STOCK_THRESHOLD, 50).totalStock());
+        assertEquals(5, storedQuantity(bolt.getId()));
+
+        assertEquals(200, ledger.compact());
+        assertEquals(205, storedQuantity(bolt.getId()));
+        assertEquals(new Item(bolt.getId(), "Bolt", 205, 0.25, 1), items.findById(conn, bolt.getId()));
+        assertEquals(0, ledger.compact());
+
+        ledger.stop();
+        assertTrue(ledger.record(bolt.getId(), 1, StockLedger.Reason.RECEIVE).isCompletedExceptionally());
+    }
+
+    @Test
+    public void keepsWritingAfterABatchThrows() throws Exception {
+        Item bolt = items.insert(conn, "Bolt", 0, 1.0);
+        AtomicBoolean broken = new AtomicBoolean(true);
+        StockLedger ledger = new StockLedger(() -> {
+            if (broken.getAndSet(false)) {
+                throw new IllegalStateException("pool closed");
+            }
+            return DriverManager.getConnection(URL);
+        }, 50, 60_000, 10_000);
+        ledger.start();
+
+        CompletableFuture<Void> failed = ledger.record(bolt.getId(), 1, StockLedger.Reason.RECEIVE);
+        assertThrows(CompletionException.class, failed::join);
+        ledger.record(bolt.getId(), 2, StockLedger.Reason.RECEIVE).join();
+        assertEquals(2, items.findById(conn, bolt.getId()).getQuantity());
+        ledger.stop();
+    }
+
+    @Test
+    public void compactsInBoundedRuns() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 0, 1.0);
+        Item nut = items.insert(conn, "Nut", 0, 1.0);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        move(bolt.getId(), 4, now);
+        move(nut.getId(), 7, now);
+        move(bolt.getId(), -1, now);
+
+        assertEquals(2, StockLedger.compact(conn, 2));
+        assertEquals(4, storedQuantity(bolt.getId()));
+        assertEquals(7, storedQuantity(nut.getId()));
+        assertEquals(3, items.findById(conn, bolt.getId()).getQuantity());
+
+        assertEquals(1, StockLedger.compact(conn, 2));
+        assertEquals(3, storedQuantity(bolt.getId()));
+        assertTrue(conn.getAutoCommit());
+    }
+
+    @Test
+    public void answersStockLevelsInThePast() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 10, 1.0);
+        long now = System.currentTimeMillis();
+        move(bolt.getId(), 5, new Timestamp(now - 3_000));
+        move(bolt.getId(), -8, new Timestamp(now - 1_000));
+        StockLedger.compact(conn, 1);
+
+        assertEquals(7, StockLedger.quantityAt(conn, bolt.getId(), new Timestamp(now)));
+        assertEquals(15, StockLedger.quantityAt(conn, bolt.getId(), new Timestamp(now - 2_000)));
+        assertEquals(10, StockLedger.quantityAt(conn, bolt.getId(), new Timestamp(now - 4_000)));
+        assertNull(StockLedger.quantityAt(conn, bolt.getId() + 1, new Timestamp(now)));
+    }
+
+    @Test
+    public void editsAndMovementsReachOtherStations() throws Exception {
+        Item bolt = items.insert(conn, "Bolt", 10, 1.0);
+        Item nut = items.insert(conn, "Nut", 10, 1.0);
+        Timestamp start = new Timestamp(System.currentTimeMillis() + 1);
+        Thread.sleep(5);
+        // Another station received stock while this one edited the quantity from 10 to 12
+        items.adjustQuantity(conn, bolt.getId(), 5);
+        assertEquals(1, items.update(conn, new Item(bolt.getId(), "Bolt", 12, 1.0, 1), 2));
+        assertEquals(17, items.findById(conn, bolt.getId()).getQuantity());
+
+        // Only the ledger changed for this one
+        items.adjustQuantity(conn, nut.getId(), -4);
+        List<Item> changed = items.findChangedSince(conn, start, 10);
+        assertEquals(List.of(new Item(bolt.getId(), "Bolt", 17, 1.0, 2), new Item(nut.getId(), "Nut", 6, 1.0, 1)),
+                changed);
+    }
+}
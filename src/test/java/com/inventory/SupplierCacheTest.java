@@ -0,0 +1,94 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SupplierCacheTest {
+
+    private final SupplierRepository suppliers = new JdbcSupplierRepository();
+    private final AtomicLong now = new AtomicLong(1_000);
+    private Connection conn;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:suppliers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE");
+        Migrations.migrate(conn, Database.MIGRATIONS);
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    public void answersFromMemoryUntilTheEntriesExpire() throws SQLException {
+        Supplier acme = suppliers.insert(conn, "Acme", "Ann", null, null);
+        suppliers.insert(conn, "Bolts Inc", "Bob", null, null);
+        SupplierCache cache = new SupplierCache(suppliers, 100, 60_000, now::get);
+
+        List<Supplier> all = cache.findAll(conn);
+        assertEquals(2, all.size());
+        assertSame(all, cache.findAll(conn));
+        assertEquals(acme, cache.findById(conn, acme.getId()));
+        assertEquals(acme, cache.findByName(conn, " ACME "));
+        assertEquals(new SupplierCache.Stats(3, 1, 0, 0, 2), cache.getStats());
+
+        now.addAndGet(60_000);
+        assertEquals(2, cache.findAll(conn).size());
+        assertEquals(new SupplierCache.Stats(3, 2, 0, 1, 2), cache.getStats());
+        assertNull(cache.findById(conn, acme.getId() + 100));
+    }
+
+    @Test
+    public void writesReplaceOnlyTheSupplierTheyTouch() throws SQLException {
+        Supplier acme = suppliers.insert(conn, "Acme", "Ann", null, null);
+        SupplierCache cache = new SupplierCache(suppliers, 100, 60_000, now::get);
+        cache.findAll(conn);
+
+        Supplier renamed = new Supplier(acme.getId(), "Acme Ltd", "Ann", null, null);
+        suppliers.update(conn, renamed);
+        cache.put(renamed);
+        Supplier added = suppliers.insert(conn, "Nuts Co", null, null, null);
+        cache.put(added);
+        assertEquals(List.of(renamed, added), cache.findAll(conn));
+        assertNull(cache.findByName(conn, "Acme"));
+        assertEquals(renamed, cache.findByName(conn, "acme ltd"));
+
+        suppliers.delete(conn, added.getId());
+        cache.remove(added.getId());
+        assertEquals(List.of(renamed), cache.findAll(conn));
+        // Besides the first read, only the lookup of the old name went to the database
+        assertEquals(2, cache.getStats().misses());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsed() throws SQLException {
+        Supplier a = suppliers.insert(conn, "A", null, null, null);
+        Supplier b = suppliers.insert(conn, "B", null, null, null);
+        Supplier c = suppliers.insert(conn, "C", null, null, null);
+        SupplierCache cache = new SupplierCache(suppliers, 2, 60_000, now::get);
+
+        cache.findById(conn, a.getId());
+        cache.findById(conn, b.getId());
+        cache.findById(conn, a.getId());
+        cache.findById(conn, c.getId());
+        assertEquals(new SupplierCache.Stats(1, 3, 1, 0, 2), cache.getStats());
+        cache.findById(conn, a.getId());
+        assertEquals(2, cache.getStats().hits());
+        // Too many to hold whole, so the directory is read every time
+        cache.findAll(conn);
+        cache.findAll(conn);
+        assertEquals(5, cache.getStats().misses());
+    }
+}
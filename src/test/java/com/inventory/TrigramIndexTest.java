@@ -0,0 +1,62 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void findsSubstringsIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Hex Bolt M8");
+        index.add(2, "Wood Screw");
+        index.add(3, "Carriage BOLT");
+
+        IntHashSet matches = index.search("bolt");
+        assertEquals(2, matches.size());
+        assertTrue(matches.contains(1));
+        assertTrue(matches.contains(3));
+    }
+
+    @Test
+    public void rejectsCandidatesWhoseTrigramsAreNotAdjacent() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "abcd bcde");
+
+        assertTrue(index.search("bcd").contains(1));
+        assertFalse(index.search("abcde").contains(1));
+    }
+
+    @Test
+    public void keepsLiveResultCurrentAcrossChanges() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Hex Bolt");
+        IntHashSet matches = index.search("bolt");
+
+        index.add(2, "Eye Bolt");
+        index.add(1, "Hex Nut");
+        assertTrue(matches.contains(2));
+        assertFalse(matches.contains(1));
+
+        index.remove(2);
+        assertTrue(matches.isEmpty());
+    }
+
+    @Test
+    public void intHashSetSurvivesManyRemovals() {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 10_000; i++) {
+            set.add(i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertTrue(set.remove(i));
+        }
+        assertEquals(5_000, set.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 1, set.contains(i));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WriteBehindTest {
+
+    private static final String URL = "jdbc:h2:mem:writebehind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE";
+
+    private final ItemRepository items = new H2ItemRepository();
+    private final SupplierRepository suppliers = new JdbcSupplierRepository();
+    private Connection conn;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException {
+        // Kept open for the whole test, so the writer's own connections see the same in-memory database
+        conn = DriverManager.getConnection(URL);
+        Migrations.migrate(conn, Database.MIGRATIONS);
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    private WriteBehind start(long flushMs) {
+        WriteBehind writeBehind = new WriteBehind(items, suppliers, () -> DriverManager.getConnection(URL),
+                flushMs, 100, 1_000, 60_000);
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    @Test
+    public void mergesRapidEditsIntoOneWrite() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 10, 1.0);
+        WriteBehind writeBehind = start(60_000);
+
+        WriteBehind.Queued first = writeBehind.updateItem(new Item(bolt.getId(), "Bolt M6", 12, 1.0, 1), 2);
+        // The second edit is made on the row as shown after the first, at the version it will have
+        assertEquals(2, first.version());
+        WriteBehind.Queued second = writeBehind.updateItem(new Item(bolt.getId(), "Bolt M6", 15, 1.5, 2), 3);
+        assertEquals(2, second.version());
+        assertTrue(writeBehind.isItemPending(bolt.getId()));
+
+        writeBehind.stop();
+        assertEquals(1, first.written().join());
+        assertEquals(1, second.written().join());
+        assertEquals(new Item(bolt.getId(), "Bolt M6", 15, 1.5, 2), items.findById(conn, bolt.getId()));
+        assertFalse(writeBehind.isItemPending(bolt.getId()));
+    }
+
+    @Test
+    public void reportsConflictsAndDeletes() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 10, 1.0);
+        Item nut = items.insert(conn, "Nut", 5, 0.1);
+        Supplier acme = suppliers.insert(conn, "Acme", "Ann", "ann@acme.test", "555-0100");
+        // Another station saved the bolt first
+        items.update(conn, new Item(bolt.getId(), "Bolt", 10, 2.0, 1), 0);
+        WriteBehind writeBehind = start(10);
+
+        CompletableFuture<Integer> stale = writeBehind.updateItem(new Item(bolt.getId(), "Bolt", 10, 3.0, 1), 0)
+                .written();
+        CompletableFuture<Integer> nutUpdate = writeBehind.updateItem(new Item(nut.getId(), "Nut", 5, 0.2, 1), 0)
+                .written();
+        // Deleting makes the queued update moot
+        CompletableFuture<Integer> nutDelete = writeBehind.deleteItem(nut.getId());
+        CompletableFuture<Integer> supplierUpdate = writeBehind.updateSupplier(
+                new Supplier(acme.getId(), "Acme Ltd", "Ann", "ann@acme.test", "555-0100"));
+
+        assertEquals(0, stale.join());
+        assertEquals(1, nutUpdate.join());
+        assertEquals(1, nutDelete.join());
+        assertEquals(1, supplierUpdate.join());
+        assertEquals(2.0, items.findById(conn, bolt.getId()).getPrice());
+        assertNull(items.findById(conn, nut.getId()));
+        assertEquals("Acme Ltd", suppliers.findAll(conn).get(0).getName());
+
+        writeBehind.stop();
+        assertTrue(writeBehind.deleteSupplier(acme.getId()).isCompletedExceptionally());
+    }
+
+    @Test
+    public void failsOnlyTheEditTheDatabaseRejects() throws SQLException {
+        Item bolt = items.insert(conn, "Bolt", 10, 1.0);
+        Item nut = items.insert(conn, "Nut", 5, 0.1);
+        Item washer = items.insert(conn, "Washer", 20, 0.05);
+        WriteBehind writeBehind = start(60_000);
+
+        CompletableFuture<Integer> boltUpdate = writeBehind.updateItem(new Item(bolt.getId(), "Bolt", 10, 2.0, 1), 0)
+                .written();
+        // The name column is NOT NULL, so this one rolls back the batch it is written in
+        CompletableFuture<Integer> nutUpdate = writeBehind.updateItem(new Item(nut.getId(), null, 5, 0.2, 1), 0)
+                .written();
+        CompletableFuture<Integer> washerDelete = writeBehind.deleteItem(washer.getId());
+        writeBehind.stop();
+
+        assertEquals(1, boltUpdate.join());
+        assertTrue(nutUpdate.isCompletedExceptionally());
+        assertEquals(1, washerDelete.join());
+        assertEquals(2.0, items.findById(conn, bolt.getId()).getPrice());
+        assertEquals("Nut", items.findById(conn, nut.getId()).getName());
+        assertNull(items.findById(conn, washer.getId()));
+    }
+
+    @Test
+    public void failsEditsPastTheQueueBound() {
+        WriteBehind writeBehind = new WriteBehind(items, suppliers, () -> DriverManager.getConnection(URL),
+                60_000, 100, 2, 60_000);
+        writeBehind.start();
+        assertFalse(writeBehind.deleteItem(1).isCompletedExceptionally());
+        assertFalse(writeBehind.deleteItem(2).isCompletedExceptionally());
+        // Another edit of a queued row still merges into it
+        assertFalse(writeBehind.deleteItem(2).isCompletedExceptionally());
+        assertTrue(writeBehind.deleteItem(3).isCompletedExceptionally());
+        writeBehind.stop();
+    }
+
+    @Test
+    public void failsNewEditsWhileTheOldestHasWaitedTooLong() throws InterruptedException {
+        WriteBehind writeBehind = new WriteBehind(items, suppliers, () -> DriverManager.getConnection(URL),
+                60_000, 100, 1_000, 20);
+        writeBehind.start();
+        assertFalse(writeBehind.deleteItem(1).isCompletedExceptionally());
+        Thread.sleep(50);
+        // Merging into the queued row adds nothing more to lose
+        assertFalse(writeBehind.deleteItem(1).isCompletedExceptionally());
+        assertTrue(writeBehind.deleteItem(2).isCompletedExceptionally());
+        writeBehind.stop();
+        assertFalse(writeBehind.isItemPending(1));
+    }
+}